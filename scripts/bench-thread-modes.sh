@@ -0,0 +1,79 @@
+#!/usr/bin/env bash
+#
+# Compares the platform-thread and virtual-thread modes under the same load.
+#
+# For each mode the script starts the engine with a fresh data directory, creates a group
+# and one mock with simulated latency plus a callback, drives it with `hey` and prints the
+# summary. Requires a JDK 21, `hey` (https://github.com/rakyll/hey), curl and jq.
+#
+# Latency is simulated by sleeping (jetmock.latency.async=false) unless LATENCY_ASYNC=true,
+# since blocking waits are what the thread mode changes.
+#
+# usage: scripts/bench-thread-modes.sh [duration] [concurrency] [latency-ms]
+
+set -euo pipefail
+
+DURATION=${1:-30s}
+CONCURRENCY=${2:-500}
+LATENCY=${3:-200}
+PORT=${PORT:-9191}
+BASE="http://localhost:${PORT}"
+
+cd "$(dirname "$0")/.."
+./gradlew -q bootJar
+JAR=$(ls build/libs/*.jar | head -n 1)
+
+run_mode() {
+  local name=$1
+  shift
+  local workdir
+  workdir=$(mktemp -d)
+
+  (cd "$workdir" && exec java -jar "$OLDPWD/$JAR" --server.port="$PORT" \
+    --jetmock.latency.async="${LATENCY_ASYNC:-false}" "$@") \
+    > "$workdir/app.log" 2>&1 &
+  local pid=$!
+  trap 'kill $pid 2>/dev/null || true' RETURN
+
+  until curl -sf "$BASE/actuator/health" > /dev/null; do sleep 1; done
+
+  curl -sf -X POST "$BASE/v1/groups" -H 'Content-Type: application/json' \
+    -d '{"name":"bench"}'
+  local group_id
+  group_id=$(curl -sf "$BASE/v1/groups" | jq -r '.[] | select(.name=="bench") | .id')
+
+  curl -sf -X POST "$BASE/v1/mocks" -H 'Content-Type: application/json' -d @- <<JSON
+{
+  "name": "bench",
+  "groupId": "${group_id}",
+  "flowSteps": [
+    {"elementName": "API_TRIGGER_REQUEST", "orderNumber": 1,
+     "method": "GET", "path": "/orders/:id"},
+    {"elementName": "API_TRIGGER_RESPONSE", "orderNumber": 2, "status": 200,
+     "latency": ${LATENCY}, "header": "{}",
+     "body": "{\"id\":\"{{1.path.id}}\",\"trace\":\"{{random.uuid}}\"}"},
+    {"elementName": "CALLBACK_API", "orderNumber": 3, "method": "GET",
+     "path": "${BASE}/actuator/health", "latency": ${LATENCY}, "header": "{}",
+     "param": "{}", "body": "{\"id\":\"{{1.path.id}}\"}"}
+  ]
+}
+JSON
+
+  local status
+  status=$(curl -s -o /dev/null -w '%{http_code}' "$BASE/bench/orders/42")
+  if [ "$status" != "200" ]; then
+    echo "${name}: warm-up request returned ${status}, expected 200" >&2
+    return 1
+  fi
+
+  hey -z "$DURATION" -c "$CONCURRENCY" "$BASE/bench/orders/42" > "$workdir/hey.txt"
+  local threads
+  threads=$(jcmd "$pid" Thread.print 2>/dev/null | grep -c '^"' || true)
+
+  echo "=== ${name} (platform threads at end of run: ${threads}) ==="
+  sed -n '/Summary:/,/Latency distribution:/p;/Status code distribution:/,$p' \
+    "$workdir/hey.txt"
+}
+
+run_mode platform --jetmock.threads.virtual=false
+run_mode virtual --jetmock.threads.virtual=true
@@ -0,0 +1,75 @@
+package jetmock.config;
+
+import jakarta.servlet.DispatcherType;
+import jetmock.controller.AdminPortFilter;
+import jetmock.service.RequestUrlService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.AbstractProtocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Separate admin plane ({@code jetmock.admin.port}): a second Tomcat connector with its own
+ * worker pool and connection limits, so operators keep a reserved share of capacity however
+ * saturated the data plane ({@code server.port}, {@code server.tomcat.*}) is. The connector is
+ * added as is, so the virtual-thread customizer of the data plane does not reach it.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@ConditionalOnProperty(name = "jetmock.admin.port")
+public class AdminConnectorConfig {
+
+  @Value("${jetmock.admin.port}")
+  private int port;
+
+  @Value("${jetmock.admin.max-threads:20}")
+  private int maxThreads;
+
+  @Value("${jetmock.admin.min-spare-threads:2}")
+  private int minSpareThreads;
+
+  @Value("${jetmock.admin.max-connections:200}")
+  private int maxConnections;
+
+  @Value("${jetmock.admin.accept-count:50}")
+  private int acceptCount;
+
+  @Bean
+  public WebServerFactoryCustomizer<TomcatServletWebServerFactory> adminConnector() {
+    return factory -> {
+      Connector connector = new Connector(TomcatServletWebServerFactory.DEFAULT_PROTOCOL);
+      connector.setPort(port);
+      if (connector.getProtocolHandler() instanceof AbstractProtocol<?> protocol) {
+        protocol.setMaxThreads(maxThreads);
+        protocol.setMinSpareThreads(minSpareThreads);
+        protocol.setMaxConnections(maxConnections);
+        protocol.setAcceptCount(acceptCount);
+      }
+      factory.addAdditionalTomcatConnectors(connector);
+      log.info("Admin plane listens on port {} | maxThreads={} | maxConnections={}",
+          port, maxThreads, maxConnections);
+    };
+  }
+
+  @Bean
+  public FilterRegistrationBean<AdminPortFilter> adminPortFilter(
+      RequestUrlService requestUrlService) {
+    FilterRegistrationBean<AdminPortFilter> registration =
+        new FilterRegistrationBean<>(new AdminPortFilter(requestUrlService, port));
+    registration.setDispatcherTypes(DispatcherType.REQUEST);
+    registration.setAsyncSupported(true);
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+    return registration;
+  }
+
+}
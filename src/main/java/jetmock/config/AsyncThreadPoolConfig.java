@@ -1,16 +1,31 @@
 package jetmock.config;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 @Configuration
 public class AsyncThreadPoolConfig implements AsyncConfigurer {
 
+  @Value("${jetmock.threads.virtual:false}")
+  private boolean virtualThreads;
+
+  /**
+   * Runs async flow elements. In virtual-thread mode every task gets its own virtual thread;
+   * the executor is closed on shutdown, which waits for running tasks like the pool does.
+   */
   @Bean(name = "asyncTaskExecutor")
   public Executor taskExecutor() {
+    if (virtualThreads) {
+      return Executors.newThreadPerTaskExecutor(
+          Thread.ofVirtual().name("async-flow-", 0).factory());
+    }
+
     ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
     executor.setCorePoolSize(5);
     executor.setMaxPoolSize(10);
@@ -20,4 +35,24 @@ public class AsyncThreadPoolConfig implements AsyncConfigurer {
     return executor;
   }
 
+  /**
+   * Timer for simulated latencies. It only fires continuations and never runs flow elements
+   * itself, so a couple of threads cover any number of waiting requests.
+   */
+  @Bean(name = "latencyTaskScheduler")
+  public ThreadPoolTaskScheduler latencyTaskScheduler(
+      @Value("${jetmock.latency.scheduler-threads:2}") int threads) {
+    ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    scheduler.setPoolSize(threads);
+    scheduler.setThreadNamePrefix("latency-");
+    scheduler.setRemoveOnCancelPolicy(true);
+    scheduler.initialize();
+    return scheduler;
+  }
+
+  @Override
+  public Executor getAsyncExecutor() {
+    return taskExecutor();
+  }
+
 }
@@ -0,0 +1,42 @@
+package jetmock.config;
+
+import jakarta.servlet.DispatcherType;
+import jetmock.controller.MockDispatchFilter;
+import jetmock.exception.ErrorResponseWriter;
+import jetmock.service.MockService;
+import jetmock.service.RequestUrlService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Opt-in direct dispatch ({@code jetmock.dispatch.direct=true}) of mock traffic through
+ * {@link MockDispatchFilter}. The filter runs after character encoding, the HTTP observation
+ * filter and the {@link AdminConnectorConfig admin port} filter, so request metrics keep
+ * covering mock traffic.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@ConditionalOnProperty(name = "jetmock.dispatch.direct", havingValue = "true")
+public class MockDispatchConfig {
+
+  @Bean
+  public FilterRegistrationBean<MockDispatchFilter> mockDispatchFilter(
+      MockService mockService, RequestUrlService requestUrlService,
+      ErrorResponseWriter errorResponseWriter) {
+    log.info("Mock traffic is dispatched directly, bypassing Spring MVC");
+    FilterRegistrationBean<MockDispatchFilter> registration = new FilterRegistrationBean<>(
+        new MockDispatchFilter(mockService, requestUrlService, errorResponseWriter));
+    registration.setDispatcherTypes(DispatcherType.REQUEST);
+    registration.setAsyncSupported(true);
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+    return registration;
+  }
+
+}
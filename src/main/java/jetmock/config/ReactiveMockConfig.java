@@ -0,0 +1,60 @@
+package jetmock.config;
+
+import java.util.List;
+import jetmock.controller.ReactiveMockHandler;
+import jetmock.service.RequestUrlService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Reactive data plane, enabled by the {@code reactive} profile
+ * ({@code spring.main.web-application-type=reactive}). Mock traffic is served by
+ * {@link ReactiveMockHandler} on Netty; the admin controllers run unchanged on WebFlux.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveMockConfig {
+
+  /**
+   * Tomcat stays on the classpath for the servlet mode and would otherwise be chosen as the
+   * reactive server as well.
+   */
+  @Bean
+  public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+    log.info("Mock traffic is served reactively on Netty");
+    return new NettyReactiveWebServerFactory();
+  }
+
+  /**
+   * Router functions are consulted before annotated controllers; the predicate leaves the
+   * reserved admin prefixes to them.
+   */
+  @Bean
+  public RouterFunction<ServerResponse> mockRoutes(ReactiveMockHandler handler) {
+    return RouterFunctions.route(handler::isMockRequest, handler::getMockResponse);
+  }
+
+  /**
+   * What {@code @CrossOrigin} on {@code DynamicMockController} provides in the servlet mode.
+   */
+  @Bean
+  public CorsWebFilter mockCorsFilter(RequestUrlService requestUrlService) {
+    CorsConfiguration cors = new CorsConfiguration();
+    cors.setAllowedOrigins(List.of("*"));
+    cors.setAllowedHeaders(List.of("*"));
+    cors.setAllowedMethods(List.of("*"));
+    return new CorsWebFilter(exchange -> requestUrlService.getGroupName(
+        exchange.getRequest().getPath().value()) != null ? cors : null);
+  }
+
+}
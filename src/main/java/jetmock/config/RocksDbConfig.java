@@ -1,35 +1,85 @@
 package jetmock.config;
 
 import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import jetmock.config.RocksDbProperties.FamilyOptions;
+import jetmock.storage.ColumnFamilies;
+import jetmock.storage.StoreFamily;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.rocksdb.Options;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.CompressionType;
+import org.rocksdb.DBOptions;
+import org.rocksdb.LRUCache;
+import org.rocksdb.OptimisticTransactionDB;
 import org.rocksdb.RocksDB;
+import org.rocksdb.UInt64AddOperator;
+import org.rocksdb.WriteOptions;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * Opens the store with one column family per {@link StoreFamily}, each tuned from
+ * {@link RocksDbProperties}. Every family gets a whole-key bloom filter, so point lookups that
+ * miss usually skip the data blocks; families with a prefix length also get a prefix bloom for
+ * their scans. The database is an {@link OptimisticTransactionDB}, so read-modify-write paths
+ * can run as transactions (see {@code StoreTransactions}) while plain reads and writes go
+ * through the usual {@link RocksDB} API. The native option objects live as long as the database
+ * and are closed after it.
+ */
 @Slf4j
 @Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(RocksDbProperties.class)
 public class RocksDbConfig {
 
   static {
     RocksDB.loadLibrary();
   }
 
-  private RocksDB rocksDB;
+  private final RocksDbProperties properties;
+  private final Deque<AutoCloseable> resources = new ArrayDeque<>();
+  private final List<ColumnFamilyHandle> handles = new ArrayList<>();
+  private OptimisticTransactionDB rocksDB;
 
   @Bean
-  public RocksDB rocksDB() {
+  public OptimisticTransactionDB rocksDB() {
     try {
-      Path dbPath = Path.of("./data/mock-rocksdb");
+      Path dbPath = Path.of(properties.getPath());
       Files.createDirectories(dbPath);
 
-      Options options = new Options()
-          .setCreateIfMissing(true);
+      Cache sharedCache = track(new LRUCache(properties.getBlockCacheSize()));
+      List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+      descriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY,
+          track(new ColumnFamilyOptions())));
+      for (StoreFamily family : StoreFamily.values()) {
+        descriptors.add(new ColumnFamilyDescriptor(family.id().getBytes(StandardCharsets.UTF_8),
+            familyOptions(family, sharedCache)));
+      }
 
-      this.rocksDB = RocksDB.open(options, dbPath.toString());
-      log.info("RocksDB started at {}", dbPath.toAbsolutePath());
+      DBOptions options = track(new DBOptions()
+          .setCreateIfMissing(true)
+          .setCreateMissingColumnFamilies(true));
+
+      this.rocksDB = OptimisticTransactionDB.open(options, dbPath.toString(), descriptors,
+          handles);
+      log.info("RocksDB started at {} | families={}", dbPath.toAbsolutePath(),
+          StoreFamily.values().length);
       return rocksDB;
 
     } catch (Exception e) {
@@ -37,12 +87,82 @@ public class RocksDbConfig {
     }
   }
 
+  /**
+   * Handles in {@link StoreFamily} order; the first handle is the default family, which only
+   * holds data written before the column family layout.
+   */
+  @Bean
+  public ColumnFamilies columnFamilies(RocksDB db) {
+    Map<StoreFamily, ColumnFamilyHandle> byFamily = new EnumMap<>(StoreFamily.class);
+    for (StoreFamily family : StoreFamily.values()) {
+      byFamily.put(family, handles.get(family.ordinal() + 1));
+    }
+    return new ColumnFamilies(byFamily);
+  }
+
+  /**
+   * Closed with the database rather than by the container.
+   */
+  @Bean(destroyMethod = "")
+  public WriteOptions writeOptions() {
+    return track(new WriteOptions()
+        .setSync(properties.getWrite().isSync())
+        .setDisableWAL(properties.getWrite().isDisableWal()));
+  }
+
   @PreDestroy
   public void close() {
+    handles.forEach(ColumnFamilyHandle::close);
     if (rocksDB != null) {
       rocksDB.close();
       log.info("RocksDB closed");
     }
+    while (!resources.isEmpty()) {
+      try {
+        resources.pop().close();
+      } catch (Exception e) {
+        log.warn("Failed to release RocksDB options", e);
+      }
+    }
+  }
+
+  private ColumnFamilyOptions familyOptions(StoreFamily family, Cache sharedCache) {
+    FamilyOptions tuning = properties.getFamilies()
+        .getOrDefault(family.id(), new FamilyOptions());
+
+    BlockBasedTableConfig table = new BlockBasedTableConfig()
+        .setBlockCache(tuning.getBlockCacheSize() > 0
+            ? track(new LRUCache(tuning.getBlockCacheSize())) : sharedCache)
+        .setBlockSize(tuning.getBlockSize())
+        .setCacheIndexAndFilterBlocks(true)
+        .setPinL0FilterAndIndexBlocksInCache(true)
+        .setWholeKeyFiltering(true);
+    if (tuning.getBloomBitsPerKey() > 0) {
+      table.setFilterPolicy(track(new BloomFilter(tuning.getBloomBitsPerKey())));
+    }
+
+    ColumnFamilyOptions options = track(new ColumnFamilyOptions())
+        .setTableFormatConfig(table)
+        .setCompressionType(compression(tuning.getCompression()));
+    if (family.isCounters()) {
+      options.setMergeOperator(track(new UInt64AddOperator()));
+    }
+    if (tuning.getPrefixLength() > 0) {
+      options.useFixedLengthPrefixExtractor(tuning.getPrefixLength());
+      options.setMemtablePrefixBloomSizeRatio(0.1);
+    }
+    return options;
+  }
+
+  private static CompressionType compression(String name) {
+    return name == null || "none".equalsIgnoreCase(name)
+        ? CompressionType.NO_COMPRESSION
+        : CompressionType.getCompressionType(name.toLowerCase(Locale.ROOT));
+  }
+
+  private <T extends AutoCloseable> T track(T resource) {
+    resources.push(resource);
+    return resource;
   }
 
 }
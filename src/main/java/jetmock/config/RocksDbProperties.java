@@ -0,0 +1,124 @@
+package jetmock.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * RocksDB location and per column family tuning ({@code jetmock.rocksdb.*}). Families without
+ * an entry under {@code families} use the {@link FamilyOptions} defaults.
+ */
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "jetmock.rocksdb")
+public class RocksDbProperties {
+
+  String path = "./data/mock-rocksdb";
+
+  /**
+   * LRU block cache shared by every family that has no cache of its own.
+   */
+  long blockCacheSize = 64L * 1024 * 1024;
+
+  Map<String, FamilyOptions> families = new HashMap<>();
+
+  Write write = new Write();
+
+  Transaction transaction = new Transaction();
+
+  Codec codec = new Codec();
+
+  @Data
+  @FieldDefaults(level = AccessLevel.PRIVATE)
+  public static class FamilyOptions {
+
+    /**
+     * Size of a dedicated block cache; 0 uses the shared one.
+     */
+    long blockCacheSize;
+
+    long blockSize = 4 * 1024;
+
+    /**
+     * Bloom filter bits per key; 0 disables the filter.
+     */
+    double bloomBitsPerKey = 10;
+
+    /**
+     * Length of the fixed key prefix that scans iterate over; 0 disables the prefix extractor.
+     */
+    int prefixLength;
+
+    /**
+     * none, snappy, lz4 or zstd.
+     */
+    String compression = "lz4";
+
+  }
+
+  /**
+   * {@code WriteOptions} of every storage write.
+   */
+  @Data
+  @FieldDefaults(level = AccessLevel.PRIVATE)
+  public static class Write {
+
+    /**
+     * fsync the WAL before a write returns; without it a machine crash may lose the last
+     * writes, a process crash does not.
+     */
+    boolean sync;
+
+    /**
+     * Skip the WAL entirely; writes not yet flushed are lost on any crash.
+     */
+    boolean disableWal;
+
+  }
+
+  /**
+   * Retries of optimistic transactions that lost a write conflict.
+   */
+  @Data
+  @FieldDefaults(level = AccessLevel.PRIVATE)
+  public static class Transaction {
+
+    int maxAttempts = 8;
+
+    /**
+     * Upper bound of the first pause; it doubles per attempt up to {@code maxBackoffMillis}.
+     */
+    long backoffMillis = 1;
+
+    long maxBackoffMillis = 50;
+
+  }
+
+  /**
+   * Format of newly written values; values in any other supported format stay readable.
+   */
+  @Data
+  @FieldDefaults(level = AccessLevel.PRIVATE)
+  public static class Codec {
+
+    /**
+     * smile, cbor or json.
+     */
+    String format = "smile";
+
+    /**
+     * Write flows and routes in their hand-written binary layout instead of {@code format}.
+     */
+    boolean binaryEntities = true;
+
+    /**
+     * Re-encode values written in an older format in the background after startup.
+     */
+    boolean migrate = true;
+
+  }
+
+}
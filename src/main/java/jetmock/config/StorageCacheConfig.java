@@ -0,0 +1,35 @@
+package jetmock.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jetmock.domain.KafkaBroker;
+import jetmock.domain.MockFlow;
+import jetmock.storage.EntityCache;
+import jetmock.storage.ValueCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Object caches between the services and RocksDB for entities read on the request path:
+ * flows on every plan miss and Kafka trigger, brokers on every Kafka publish.
+ */
+@Configuration
+public class StorageCacheConfig {
+
+  @Bean
+  public EntityCache<MockFlow> flowCache(
+      ValueCodec codec, MeterRegistry meterRegistry,
+      @Value("${jetmock.storage-cache.flows.max-bytes:67108864}") long maxBytes) {
+    return new EntityCache<>("jetmock.storage.flows", maxBytes,
+        bytes -> codec.decode(bytes, MockFlow.class), meterRegistry);
+  }
+
+  @Bean
+  public EntityCache<KafkaBroker> brokerCache(
+      ValueCodec codec, MeterRegistry meterRegistry,
+      @Value("${jetmock.storage-cache.brokers.max-bytes:1048576}") long maxBytes) {
+    return new EntityCache<>("jetmock.storage.brokers", maxBytes,
+        bytes -> codec.decode(bytes, KafkaBroker.class), meterRegistry);
+  }
+
+}
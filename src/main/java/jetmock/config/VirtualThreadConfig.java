@@ -0,0 +1,28 @@
+package jetmock.config;
+
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in virtual-thread mode ({@code jetmock.threads.virtual=true}): Tomcat handles every request,
+ * and every servlet async continuation, on its own virtual thread. The async flow executor
+ * switches in {@link AsyncThreadPoolConfig}. The latency timer and the Kafka listener containers
+ * keep their platform threads.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "jetmock.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+    log.info("Tomcat request handling runs on virtual threads");
+    return protocolHandler -> protocolHandler.setExecutor(
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-", 0).factory()));
+  }
+
+}
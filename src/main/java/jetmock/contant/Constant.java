@@ -2,6 +2,7 @@ package jetmock.contant;
 
 import static lombok.AccessLevel.PRIVATE;
 
+import java.util.Set;
 import lombok.NoArgsConstructor;
 
 @NoArgsConstructor(access = PRIVATE)
@@ -20,6 +21,20 @@ public class Constant {
   public static final String VARIABLE_SYMBOL = "$";
   public static final String DELIMITER = "/";
 
+  /**
+   * First path segments of the admin APIs and their documentation; with a separate admin port
+   * they are only served there.
+   */
+  public static final Set<String> ADMIN_PREFIXES = Set.of(
+      "api", "v1", "v3", "api-docs", "swagger-ui", "__debug");
+
+  /**
+   * First path segments owned by the admin, documentation and actuator endpoints; they are
+   * never dispatched as a mock group by the direct data-plane entry points.
+   */
+  public static final Set<String> RESERVED_PREFIXES = Set.of(
+      "api", "v1", "v3", "api-docs", "swagger-ui", "__debug", "actuator", "error");
+
   /**
    * The regular expression used to identify and prevent code injection attack
    * 1. Semicolons (;): Used to separate SQL statements. A string containing a semicolon might
@@ -10,6 +10,8 @@ public enum ElementSchema {
 
   CONDITION(Map.of(
       "expression", FieldRule.builder().type(DataType.STRING).isNotBlank(true).build())),
+  MATCHER(Map.of(
+      "predicates", FieldRule.builder().type(DataType.TEXT).isNotBlank(true).build())),
   API_TRIGGER_REQUEST(Map.of(
       "method", FieldRule.builder().type(DataType.STRING).isNotBlank(true).build(),
       "path", FieldRule.builder().type(DataType.STRING).isNotBlank(true).build())),
@@ -17,7 +19,8 @@ public enum ElementSchema {
       "status", FieldRule.builder().type(DataType.INTEGER).isNotNull(true).build(),
       "latency", FieldRule.builder().type(DataType.INTEGER).isNotNull(true).build(),
       "header", FieldRule.builder().type(DataType.TEXT).isNotBlank(true).build(),
-      "body", FieldRule.builder().type(DataType.TEXT).isNotBlank(true).build())),
+      "body", FieldRule.builder().type(DataType.TEXT).isNotBlank(true).build(),
+      "memoize", FieldRule.builder().type(DataType.BOOLEAN).build())),
   KAFKA_TRIGGER(Map.of(
       "topic", FieldRule.builder().type(DataType.STRING).isNotBlank(true).build(),
       "broker", FieldRule.builder().type(DataType.STRING).isNotBlank(true).build())),
@@ -0,0 +1,26 @@
+package jetmock.contant;
+
+import java.util.Arrays;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum MatchOperator {
+
+  EQUAL_TO("equalTo"),
+  IN("in"),
+  EXISTS("exists"),
+  REGEX("regex"),
+  RANGE("range");
+
+  private final String jsonName;
+
+  public static MatchOperator from(String name) {
+    return Arrays.stream(values())
+        .filter(op -> op.jsonName.equalsIgnoreCase(name) || op.name().equalsIgnoreCase(name))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unknown match operator: " + name));
+  }
+
+}
@@ -0,0 +1,43 @@
+package jetmock.controller;
+
+import static jetmock.contant.Constant.ADMIN_PREFIXES;
+import static jetmock.contant.Constant.RESERVED_PREFIXES;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import jetmock.service.RequestUrlService;
+
+/**
+ * Keeps the two planes apart once the admin APIs have their own port: the admin port only
+ * serves the admin, documentation and actuator endpoints, and the data port serves everything
+ * but the admin APIs. Actuator stays reachable on both for health checks.
+ */
+public class AdminPortFilter extends HttpFilter {
+
+  private final transient RequestUrlService requestUrlService;
+  private final int adminPort;
+
+  public AdminPortFilter(RequestUrlService requestUrlService, int adminPort) {
+    this.requestUrlService = requestUrlService;
+    this.adminPort = adminPort;
+  }
+
+  @Override
+  protected void doFilter(HttpServletRequest request, HttpServletResponse response,
+                          FilterChain chain) throws IOException, ServletException {
+    String segment = requestUrlService.getFirstSegment(request.getRequestURI());
+    boolean allowed = request.getLocalPort() == adminPort
+        ? RESERVED_PREFIXES.contains(segment)
+        : !ADMIN_PREFIXES.contains(segment);
+    if (!allowed) {
+      response.sendError(HttpServletResponse.SC_NOT_FOUND);
+      return;
+    }
+    chain.doFilter(request, response);
+  }
+
+}
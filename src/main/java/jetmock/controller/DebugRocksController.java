@@ -28,20 +28,23 @@ public class DebugRocksController {
 
   /**
    * Prefix üzrə dump.
-   * GET /__debug/rocks/prefix?key=flow:
+   * GET /__debug/rocks/prefix?family=routes&key=3f2c...
    */
   @GetMapping("/prefix")
-  public ResponseEntity<?> dumpByPrefix(@RequestParam("key") String prefix) {
-    return ResponseEntity.ok(debugRocksService.dumpByPrefix(prefix));
+  public ResponseEntity<?> dumpByPrefix(@RequestParam("family") String family,
+                                        @RequestParam(value = "key", defaultValue = "")
+                                        String prefix) {
+    return ResponseEntity.ok(debugRocksService.dumpByPrefix(family, prefix));
   }
 
   /**
    * Tək key oxu.
-   * GET /__debug/rocks/key?key=flow:123
+   * GET /__debug/rocks/key?family=flows&key=3f2c...
    */
   @GetMapping("/key")
-  public ResponseEntity<?> getByKey(@RequestParam("key") String key) {
-    Object value = debugRocksService.getByKey(key);
+  public ResponseEntity<?> getByKey(@RequestParam("family") String family,
+                                    @RequestParam("key") String key) {
+    Object value = debugRocksService.getByKey(family, key);
     if (value == null) {
       return ResponseEntity.notFound().build();
     }
@@ -0,0 +1,35 @@
+package jetmock.controller;
+
+import java.util.List;
+import java.util.Map;
+import jetmock.service.ExpressionCompiler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/__debug/spel")
+@RequiredArgsConstructor
+@Profile({"dev", "local"})
+public class DebugSpelController {
+
+  private final ExpressionCompiler expressionCompiler;
+
+  /**
+   * Cached SpEL expressions with their compilation state, hottest first.
+   * GET /__debug/spel
+   */
+  @GetMapping
+  public ResponseEntity<List<Map<String, Object>>> expressions() {
+    return ResponseEntity.ok(expressionCompiler.getAll().stream()
+        .map(e -> Map.<String, Object>of(
+            "expression", e.getSource(),
+            "state", e.getState(),
+            "evaluations", e.getEvaluations()))
+        .toList());
+  }
+
+}
@@ -1,20 +1,21 @@
 package jetmock.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
-import java.util.Map;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import jetmock.service.MockService;
-import org.springframework.http.ResponseEntity;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*", allowedHeaders = "*")
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
@@ -23,12 +24,11 @@ public class DynamicMockController {
   MockService mockService;
 
   @RequestMapping(path = "/{groupName:^(?!swagger-ui|v3|api-docs).+}/**")
-  public ResponseEntity<Object> getMockResponse(@PathVariable String groupName,
-                                                HttpServletRequest request,
-                                                @RequestHeader Map<String, Object> headers,
-                                                @RequestBody(required = false)
-                                                String requestBody) {
-    return mockService.getMockResponse(groupName, request, requestBody, headers);
+  public void getMockResponse(@PathVariable String groupName,
+                              HttpServletRequest request,
+                              HttpServletResponse response,
+                              @RequestBody(required = false) String requestBody) {
+    mockService.getMockResponse(groupName, request, response, requestBody);
   }
 
 }
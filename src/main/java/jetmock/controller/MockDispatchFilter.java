@@ -0,0 +1,80 @@
+package jetmock.controller;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import jetmock.exception.ErrorResponseWriter;
+import jetmock.service.MockService;
+import jetmock.service.RequestUrlService;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Data-plane entry point that serves mock traffic without going through
+ * {@code DispatcherServlet}: the group is the first URI segment, the body is read as is, and
+ * {@link MockService} writes the response. Requests under the admin, documentation and
+ * actuator prefixes, and CORS preflights, continue down the chain to Spring MVC, where
+ * {@link DynamicMockController} still serves as the fallback.
+ */
+public class MockDispatchFilter extends HttpFilter {
+
+  private final transient MockService mockService;
+  private final transient RequestUrlService requestUrlService;
+  private final transient ErrorResponseWriter errorResponseWriter;
+
+  public MockDispatchFilter(MockService mockService, RequestUrlService requestUrlService,
+                            ErrorResponseWriter errorResponseWriter) {
+    this.mockService = mockService;
+    this.requestUrlService = requestUrlService;
+    this.errorResponseWriter = errorResponseWriter;
+  }
+
+  @Override
+  protected void doFilter(HttpServletRequest request, HttpServletResponse response,
+                          FilterChain chain) throws IOException, ServletException {
+    String groupName = requestUrlService.getGroupName(request.getRequestURI());
+    if (groupName == null || isPreflight(request)) {
+      chain.doFilter(request, response);
+      return;
+    }
+
+    allowOrigin(request, response);
+    try {
+      mockService.getMockResponse(groupName, request, response, readBody(request));
+    } catch (RuntimeException e) {
+      errorResponseWriter.write(request, response, e);
+    }
+  }
+
+  private static void allowOrigin(HttpServletRequest request, HttpServletResponse response) {
+    if (request.getHeader(HttpHeaders.ORIGIN) != null) {
+      response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+    }
+  }
+
+  private static boolean isPreflight(HttpServletRequest request) {
+    return "OPTIONS".equals(request.getMethod())
+        && request.getHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD) != null;
+  }
+
+  /**
+   * Mirrors {@code @RequestBody(required = false) String}: an empty body is {@code null}.
+   */
+  private static String readBody(HttpServletRequest request) throws IOException {
+    if (request.getContentLengthLong() == 0) {
+      return null;
+    }
+    byte[] body = request.getInputStream().readAllBytes();
+    if (body.length == 0) {
+      return null;
+    }
+    String encoding = request.getCharacterEncoding();
+    Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+    return new String(body, charset);
+  }
+
+}
@@ -0,0 +1,68 @@
+package jetmock.controller;
+
+import java.util.UUID;
+import jetmock.exception.BaseException;
+import jetmock.exception.NotFoundException;
+import jetmock.exception.RestErrorResponse;
+import jetmock.service.ReactiveMockService;
+import jetmock.service.RequestUrlService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive mode's {@link DynamicMockController}, routed for every path whose first segment is
+ * not reserved. Controller advice does not apply to functional endpoints, so errors are mapped
+ * to the {@code BaseExceptionHandler} body here.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReactiveMockHandler {
+
+  ReactiveMockService reactiveMockService;
+  RequestUrlService requestUrlService;
+
+  public boolean isMockRequest(ServerRequest request) {
+    return requestUrlService.getGroupName(request.path()) != null;
+  }
+
+  public Mono<ServerResponse> getMockResponse(ServerRequest request) {
+    String groupName = requestUrlService.getGroupName(request.path());
+    return reactiveMockService.getMockResponse(groupName, request)
+        .onErrorResume(this::error);
+  }
+
+  private Mono<ServerResponse> error(Throwable e) {
+    if (e instanceof BaseException base) {
+      if (!(base instanceof NotFoundException)) {
+        log.error("BaseException: ", base);
+      }
+      return ServerResponse.status(base.getStatus()).bodyValue(RestErrorResponse.builder()
+          .uuid(base.getUuid())
+          .code(base.getCode())
+          .message(base.getMessage())
+          .checks(base.getChecks())
+          .build());
+    }
+
+    log.error("Unexpected exception", e);
+    return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR).bodyValue(
+        RestErrorResponse.builder()
+            .uuid(UUID.randomUUID().toString())
+            .code("UNEXPECTED_ERROR")
+            .message(HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase())
+            .build());
+  }
+
+}
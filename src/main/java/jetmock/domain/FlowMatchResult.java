@@ -1,16 +1,42 @@
 package jetmock.domain;
 
+import java.util.Comparator;
 import java.util.UUID;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
 public class FlowMatchResult {
 
+  /**
+   * Order in which candidates sharing a trigger are tried: lowest priority first, flows
+   * without a priority last, ties broken by flow id. Ids compare as unsigned big-endian bytes,
+   * the order of the route index keys in RocksDB.
+   */
+  public static final Comparator<FlowMatchResult> PRIORITY_ORDER =
+      Comparator.comparingInt(FlowMatchResult::getPriority)
+          .thenComparing(FlowMatchResult::getId, FlowMatchResult::compareUnsigned);
+
+  private static int compareUnsigned(UUID a, UUID b) {
+    int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+    return high != 0
+        ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+  }
+
   //common
   UUID id;
+  int version;
   String expression;
+  String matcher;
+  int priority;
 
   //api trigger
   String method;
@@ -20,4 +46,4 @@ public class FlowMatchResult {
   String brokerId;
   String topic;
 
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package jetmock.domain;
 
+import java.util.UUID;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -15,4 +16,22 @@ public class GlobalVariable {
   String key;
   Object value;
 
+  /**
+   * {@code null} for variables stored before scopes existed, which are global.
+   */
+  VariableScope scope;
+
+  /**
+   * Group or flow id for the {@code GROUP} and {@code FLOW} scopes.
+   */
+  UUID scopeId;
+
+  public GlobalVariable(String key, Object value) {
+    this(key, value, VariableScope.GLOBAL, null);
+  }
+
+  public VariableScope effectiveScope() {
+    return scope == null ? VariableScope.GLOBAL : scope;
+  }
+
 }
@@ -19,6 +19,16 @@ public class MockFlow {
   UUID id;
   String name;
   UUID groupId;
+  Integer priority;
+  Integer version;
   List<FlowElement> flowElements;
 
+  public int effectivePriority() {
+    return priority == null ? Integer.MAX_VALUE : priority;
+  }
+
+  public int effectiveVersion() {
+    return version == null ? 0 : version;
+  }
+
 }
@@ -0,0 +1,11 @@
+package jetmock.domain;
+
+/**
+ * Visibility of a {@link GlobalVariable}. A {@code {{global.x}}} placeholder resolves the
+ * variable of its flow first, then of its group, then the global one.
+ */
+public enum VariableScope {
+
+  GLOBAL, GROUP, FLOW
+
+}
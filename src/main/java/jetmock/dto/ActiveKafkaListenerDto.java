@@ -20,5 +20,6 @@ public class ActiveKafkaListenerDto {
   String topic;
   String groupId;
   boolean running;
+  boolean paused;
 
 }
\ No newline at end of file
@@ -21,6 +21,7 @@ public class CreateMockRequest {
   String name;
   @NotBlank
   String groupId;
+  Integer priority;
   List<Map<String, Object>> flowSteps;
 
 }
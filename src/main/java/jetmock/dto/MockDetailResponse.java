@@ -18,6 +18,7 @@ public class MockDetailResponse {
 
   String name;
   String description;
+  Integer priority;
   List<Map<String, Object>> flowSteps;
 
 }
@@ -18,5 +18,6 @@ public class ApiResponsePayload {
   Integer latency;
   String header;
   String body;
+  Boolean memoize;
 
 }
\ No newline at end of file
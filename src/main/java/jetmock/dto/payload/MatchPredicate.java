@@ -0,0 +1,26 @@
+package jetmock.dto.payload;
+
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class MatchPredicate {
+
+  String source;
+  String selector;
+  String op;
+  Object value;
+  List<Object> values;
+  Double min;
+  Double max;
+
+}
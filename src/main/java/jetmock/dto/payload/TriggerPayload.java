@@ -1,22 +1,82 @@
 package jetmock.dto.payload;
 
 import java.util.Map;
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-import lombok.experimental.FieldDefaults;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-@FieldDefaults(level = AccessLevel.PRIVATE)
+import java.util.function.Supplier;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+/**
+ * Trigger data exposed to conditions, matchers and templates as {@code header}, {@code path}
+ * and {@code body}. Header and body are resolved on first access, so flows that never look at
+ * them skip header copying and JSON parsing.
+ */
 public class TriggerPayload {
 
-  Map<String, Object> header;
-  Map<String, String> path;
-  Map<String, Object> body;
+  private final Supplier<Map<String, Object>> headerSource;
+  private final Supplier<Map<String, Object>> bodySource;
+  private Map<String, Object> header;
+  private Map<String, Object> body;
+  private boolean headerResolved;
+  private boolean bodyResolved;
+  private Map<String, String> path;
+
+  private TriggerPayload(Supplier<Map<String, Object>> headerSource,
+                         Supplier<Map<String, Object>> bodySource) {
+    this.headerSource = headerSource;
+    this.bodySource = bodySource;
+  }
+
+  public static TriggerPayload lazy(Supplier<Map<String, Object>> header,
+                                    Supplier<Map<String, Object>> body) {
+    return new TriggerPayload(header, body);
+  }
+
+  public Map<String, Object> getHeader() {
+    if (!headerResolved) {
+      header = headerSource.get();
+      headerResolved = true;
+    }
+    return header;
+  }
+
+  public Map<String, Object> getBody() {
+    if (!bodyResolved) {
+      body = bodySource.get();
+      bodyResolved = true;
+    }
+    return body;
+  }
+
+  public Map<String, String> getPath() {
+    return path;
+  }
+
+  public void setPath(Map<String, String> path) {
+    this.path = path;
+  }
+
+  /**
+   * Part of the payload by name, as addressed by {@code {{n.header...}}} style placeholders.
+   */
+  public Object get(String part) {
+    return switch (part) {
+      case "header" -> getHeader();
+      case "path" -> getPath();
+      case "body" -> getBody();
+      default -> null;
+    };
+  }
+
+  /**
+   * Copies the headers into a case-insensitive map, so the payload stays readable after the
+   * source (e.g. a recycled servlet request) is gone.
+   */
+  public void detach() {
+    Map<String, Object> source = getHeader();
+    if (source != null) {
+      Map<String, Object> copy = new LinkedCaseInsensitiveMap<>(source.size());
+      copy.putAll(source);
+      header = copy;
+    }
+  }
 
 }
@@ -9,7 +9,7 @@ import lombok.Getter;
 @AllArgsConstructor
 public class BaseException extends RuntimeException {
 
-  private final String uuid;
+  private String uuid;
   private final Integer status;
   private final String code;
   private final String message;
@@ -20,7 +20,21 @@ public class BaseException extends RuntimeException {
   }
 
   public BaseException(Integer status, String code, String message, List<ValidationError> checks) {
-    this(UUID.randomUUID().toString(), status, code, message, checks);
+    this(null, status, code, message, checks);
+  }
+
+  /**
+   * The error id, created on first use.
+   */
+  public String getUuid() {
+    if (uuid == null) {
+      uuid = newUuid().toString();
+    }
+    return uuid;
+  }
+
+  protected UUID newUuid() {
+    return UUID.randomUUID();
   }
 
 }
@@ -49,6 +49,17 @@ public class BaseExceptionHandler {
         .build();
   }
 
+  @ExceptionHandler(NotFoundException.class)
+  public ResponseEntity<RestErrorResponse> handleNotFoundException(NotFoundException ex) {
+    log.debug("NotFoundException: {} {}", ex.getCode(), ex.getMessage());
+    RestErrorResponse response = RestErrorResponse.builder()
+        .uuid(ex.getUuid())
+        .code(ex.getCode())
+        .message(ex.getMessage())
+        .build();
+    return ResponseEntity.status(ex.getStatus()).body(response);
+  }
+
   @ExceptionHandler(BaseException.class)
   public ResponseEntity<RestErrorResponse> handleBaseException(
       BaseException ex) {
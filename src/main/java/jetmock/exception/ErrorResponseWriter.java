@@ -0,0 +1,54 @@
+package jetmock.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the {@link RestErrorResponse} that {@link BaseExceptionHandler} returns, for mock
+ * traffic that fails outside Spring MVC: in direct dispatch and after a response went async.
+ * The CORS origin is set again since the response is reset first.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ErrorResponseWriter {
+
+  private final ObjectMapper objectMapper;
+
+  public void write(HttpServletRequest request, HttpServletResponse response,
+                    RuntimeException e) throws IOException {
+    BaseException base = e instanceof BaseException b ? b : null;
+    if (base == null) {
+      log.error("Unexpected exception", e);
+    } else if (!(base instanceof NotFoundException)) {
+      log.error("BaseException: ", e);
+    }
+    if (response.isCommitted()) {
+      return;
+    }
+
+    RestErrorResponse body = RestErrorResponse.builder()
+        .uuid(base == null ? UUID.randomUUID().toString() : base.getUuid())
+        .code(base == null ? "UNEXPECTED_ERROR" : base.getCode())
+        .message(base == null ? "Internal Server Error" : base.getMessage())
+        .checks(base == null ? null : base.getChecks())
+        .build();
+    response.reset();
+    if (request.getHeader(HttpHeaders.ORIGIN) != null) {
+      response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+    }
+    response.setStatus(base == null ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+        : base.getStatus());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(), body);
+  }
+
+}
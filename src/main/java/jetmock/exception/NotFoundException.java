@@ -0,0 +1,33 @@
+package jetmock.exception;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 404 raised on the request hot path for unmatched traffic. It carries no stack trace and its
+ * error id comes from {@link ThreadLocalRandom} rather than {@code SecureRandom}, which makes
+ * throwing it cheap and keeps it out of error logs.
+ */
+public class NotFoundException extends BaseException {
+
+  public NotFoundException(String code, String message) {
+    super(404, code, message);
+  }
+
+  /**
+   * A random (version 4) UUID; the id only correlates a response with logs.
+   */
+  @Override
+  protected UUID newUuid() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long high = (random.nextLong() & ~0xF000L) | 0x4000L;
+    long low = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+    return new UUID(high, low);
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+
+}
@@ -1,14 +1,10 @@
 package jetmock.service;
 
-import java.util.Comparator;
-import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.Executor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import jetmock.domain.FlowElement;
-import jetmock.domain.MockFlow;
-import jetmock.storage.MockFlowStorage;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
@@ -18,25 +14,45 @@ import org.springframework.stereotype.Service;
 public class AsyncFlowExecutor {
 
   private final ElementService elementService;
-  private final MockFlowStorage mockFlowStorage;
+  private final LatencyScheduler latencyScheduler;
+  @Qualifier("asyncTaskExecutor")
+  private final Executor asyncTaskExecutor;
 
   //todo config
   @Async
-  public void runElementsAfterTrigger(UUID flowId,
-                                      String triggerElementName,
-                                      Map<Integer, Object> context) {
-    MockFlow flow = mockFlowStorage.findById(flowId)
-        .orElseThrow(() -> new IllegalStateException("MockFlow not found: " + flowId));
+  public void runElementsAfter(CompiledFlow flow, int index, Map<Integer, Object> context) {
+    Executor resume = task -> asyncTaskExecutor.execute(() -> {
+      try {
+        task.run();
+      } catch (RuntimeException e) {
+        log.error("Async execution failed | flow={}", flow.getId(), e);
+      }
+    });
 
-    List<FlowElement> elements = flow.getFlowElements();
-    elements.sort(Comparator.comparing(FlowElement::getOrderNumber));
-    int start = elementService.findIndex(elements, triggerElementName);
+    runElements(flow, index + 1, flow.size(), context, resume, () ->
+        log.info("Finished async execution | flow={} | after={}",
+            flow.getId(), index < 0 ? "START" : flow.element(index).getName()));
+  }
 
-    for (int i = start + 1; i < elements.size(); i++) {
-      elementService.executeElementAction(elements.get(i), context);
+  /**
+   * Executes the elements in {@code [from, to)} and then {@code then}. When an element has a
+   * latency, the rest of the run is scheduled and continues on {@code resume}.
+   */
+  public void runElements(CompiledFlow flow, int from, int to, Map<Integer, Object> context,
+                          Executor resume, Runnable then) {
+    for (int i = from; i < to; i++) {
+      int delay = flow.delayBefore(i);
+      if (delay > 0) {
+        int index = i;
+        latencyScheduler.schedule(delay, resume, () -> {
+          elementService.executeElementAction(flow, index, context);
+          runElements(flow, index + 1, to, context, resume, then);
+        });
+        return;
+      }
+      elementService.executeElementAction(flow, i, context);
     }
-    log.info("Finished async execution | flow={} | trigger={}",
-        flowId, triggerElementName);
+    then.run();
   }
 
 }
@@ -7,7 +7,6 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import jetmock.dto.payload.CallbackApiPayload;
 import jetmock.util.ParserUtil;
-import jetmock.util.ThreadUtil;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -25,7 +24,6 @@ public class CallbackService {
 
   public void callbackToClient(CallbackApiPayload callbackApiPayload) {
     log.info("callback to client started: {}", callbackApiPayload);
-    ThreadUtil.sleep(callbackApiPayload.getLatency());
     JsonNode callbackRequestBody = ParserUtil.toJsonNode(callbackApiPayload.getBody());
     callbackToClient(callbackRequestBody, callbackApiPayload.getPath(),
         callbackApiPayload.getMethod());
@@ -0,0 +1,165 @@
+package jetmock.service;
+
+import java.util.UUID;
+import jetmock.domain.FlowElement;
+import jetmock.dto.payload.ApiResponsePayload;
+import jetmock.dto.payload.CallbackApiPayload;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Execution plan of one flow version, built by {@link FlowPlanRegistry}. Elements are sorted by
+ * order number, their attributes are already bound to payload objects and their templates are
+ * compiled. A plan is shared
+ * between the request thread and async execution and must not be modified.
+ */
+public final class CompiledFlow {
+
+  private final UUID id;
+  private final UUID groupId;
+  private final int version;
+  private final FlowElement[] elements;
+  private final Object[] payloads;
+  private final Template[] templates;
+  private final int triggerIndex;
+  private final int responseIndex;
+  private final HttpHeaders responseHeaders;
+  private final StaticResponse staticResponse;
+  private final boolean memoizeResponse;
+
+  CompiledFlow(UUID id, UUID groupId, int version, FlowElement[] elements, Object[] payloads,
+               Template[] templates, int triggerIndex, int responseIndex,
+               HttpHeaders responseHeaders, StaticResponse staticResponse,
+               boolean memoizeResponse) {
+    this.id = id;
+    this.groupId = groupId;
+    this.version = version;
+    this.elements = elements;
+    this.payloads = payloads;
+    this.templates = templates;
+    this.triggerIndex = triggerIndex;
+    this.responseIndex = responseIndex;
+    this.responseHeaders = responseHeaders;
+    this.staticResponse = staticResponse;
+    this.memoizeResponse = memoizeResponse;
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public UUID getGroupId() {
+    return groupId;
+  }
+
+  public int getVersion() {
+    return version;
+  }
+
+  public int size() {
+    return elements.length;
+  }
+
+  public FlowElement element(int index) {
+    return elements[index];
+  }
+
+  /**
+   * Payload bound from the attributes of the element, or {@code null} for elements without one.
+   */
+  public Object payload(int index) {
+    return payloads[index];
+  }
+
+  /**
+   * Compiled body (or variable) template of the element, or {@code null} when it has none.
+   */
+  public Template template(int index) {
+    return templates[index];
+  }
+
+  /**
+   * Index of the {@code API_TRIGGER_REQUEST} or {@code KAFKA_TRIGGER} element, or -1.
+   */
+  public int getTriggerIndex() {
+    return triggerIndex;
+  }
+
+  /**
+   * Index of the {@code API_TRIGGER_RESPONSE} element, or -1.
+   */
+  public int getResponseIndex() {
+    return responseIndex;
+  }
+
+  public FlowElement trigger() {
+    if (triggerIndex < 0) {
+      throw new IllegalStateException("Trigger element was not found in the flow " + id);
+    }
+    return elements[triggerIndex];
+  }
+
+  public ApiResponsePayload response() {
+    if (responseIndex < 0) {
+      throw new IllegalStateException("API_TRIGGER_RESPONSE element was not found in the flow "
+          + id);
+    }
+    return (ApiResponsePayload) payloads[responseIndex];
+  }
+
+  public FlowElement responseElement() {
+    response();
+    return elements[responseIndex];
+  }
+
+  /**
+   * Simulated latency in milliseconds to wait before the element runs: the latency of a
+   * {@code CALLBACK_API} or {@code API_TRIGGER_RESPONSE} element, 0 for the others and for a
+   * missing element (-1).
+   */
+  public int delayBefore(int index) {
+    if (index < 0) {
+      return 0;
+    }
+    Integer latency = null;
+    if (payloads[index] instanceof CallbackApiPayload callback) {
+      latency = callback.getLatency();
+    } else if (payloads[index] instanceof ApiResponsePayload response) {
+      latency = response.getLatency();
+    }
+    return latency == null ? 0 : Math.max(latency, 0);
+  }
+
+  /**
+   * Total latency between the trigger and the response.
+   */
+  public int delayBeforeResponse() {
+    int delay = 0;
+    for (int i = triggerIndex + 1; i <= responseIndex; i++) {
+      delay += delayBefore(i);
+    }
+    return delay;
+  }
+
+  /**
+   * Read-only response headers: {@code application/json} plus the headers of the response
+   * element.
+   */
+  public HttpHeaders getResponseHeaders() {
+    return responseHeaders;
+  }
+
+  /**
+   * Pre-rendered response when the response body has no placeholders, otherwise {@code null}.
+   */
+  StaticResponse getStaticResponse() {
+    return staticResponse;
+  }
+
+  /**
+   * Whether the rendered response body is served from the {@link RenderCache}.
+   */
+  boolean isMemoizeResponse() {
+    return memoizeResponse;
+  }
+
+}
@@ -0,0 +1,253 @@
+package jetmock.service;
+
+import static jetmock.contant.Constant.CONDITION_BLACKLIST_REGEX;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import jetmock.domain.FlowMatchResult;
+import jetmock.domain.MockFlow;
+import jetmock.dto.payload.TriggerPayload;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.ConstructorResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.OperatorOverloader;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypeComparator;
+import org.springframework.expression.TypeConverter;
+import org.springframework.expression.TypeLocator;
+import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+import org.springframework.stereotype.Service;
+
+/**
+ * Compiles the {@code CONDITION} expression and {@code MATCHER} predicates of a flow once per
+ * flow version. Expressions are evaluated in a sandboxed, shared {@link SimpleEvaluationContext}:
+ * no type references, constructors or bean references, read-only property access, and
+ * {@code #json(...)} from {@link SpelFunctions}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ConditionEvaluator {
+
+  private static final String CONDITION = "CONDITION";
+  private static final String MATCHER = "MATCHER";
+  private static final String TRIGGER_VARIABLE = "trigger";
+  private static final Pattern BLACKLIST = Pattern.compile(CONDITION_BLACKLIST_REGEX);
+  private static final ExpressionParser PARSER = new SpelExpressionParser();
+  private static final EvaluationContext SHARED_CONTEXT = sharedContext();
+
+  ElementService elementService;
+  ExpressionCompiler expressionCompiler;
+
+  Map<UUID, CompiledCondition> conditions = new ConcurrentHashMap<>();
+
+  /**
+   * Returns a validation message for the expression, or {@code null} when it is usable.
+   */
+  public String validate(String expression) {
+    if (BLACKLIST.matcher(expression).matches()) {
+      return "expression contains forbidden characters";
+    }
+    try {
+      PARSER.parseExpression(expression);
+      return null;
+    } catch (Exception e) {
+      return "invalid expression: " + e.getMessage();
+    }
+  }
+
+  public String validateMatcher(String predicates) {
+    try {
+      RequestMatcher.compile(predicates);
+      return null;
+    } catch (Exception e) {
+      return "invalid predicates: " + e.getMessage();
+    }
+  }
+
+  public void register(MockFlow flow) {
+    String expression = attribute(flow, CONDITION, "expression");
+    String matcher = attribute(flow, MATCHER, "predicates");
+
+    if (isBlank(expression) && isBlank(matcher)) {
+      conditions.remove(flow.getId());
+      return;
+    }
+    conditions.put(flow.getId(),
+        compile(flow.getId(), flow.effectiveVersion(), expression, matcher));
+  }
+
+  public void evict(UUID flowId) {
+    conditions.remove(flowId);
+  }
+
+  /**
+   * Returns the compiled {@code MATCHER} of the flow, or {@code null} when it has none.
+   */
+  public RequestMatcher matcher(FlowMatchResult flow) {
+    return isBlank(flow.getMatcher()) ? null : compiled(flow).matcher();
+  }
+
+  /**
+   * Evaluates the matcher and the expression of the flow; a missing part counts as satisfied.
+   */
+  public boolean evaluate(FlowMatchResult flow, TriggerPayload triggerPayload) {
+    CompiledCondition condition = compiled(flow);
+    if (!condition.valid()) {
+      return false;
+    }
+    if (condition.matcher() != null && !condition.matcher().test(triggerPayload)) {
+      return false;
+    }
+
+    HotExpression expression = condition.expression();
+    if (expression == null) {
+      return true;
+    }
+
+    try {
+      EvaluationContext context = new TriggerContext(triggerPayload);
+      return Boolean.TRUE.equals(expression.getValue(context, null, Boolean.class));
+    } catch (Exception e) {
+      log.error("Condition evaluation failed | flowId={}", flow.getId(), e);
+    }
+    return false;
+  }
+
+  private CompiledCondition compiled(FlowMatchResult flow) {
+    CompiledCondition condition = conditions.get(flow.getId());
+    if (condition != null && condition.version() == flow.getVersion()
+        && Objects.equals(condition.source(), flow.getExpression())
+        && Objects.equals(condition.matcherSource(), flow.getMatcher())) {
+      return condition;
+    }
+
+    condition = compile(flow.getId(), flow.getVersion(), flow.getExpression(), flow.getMatcher());
+    conditions.put(flow.getId(), condition);
+    return condition;
+  }
+
+  private CompiledCondition compile(UUID flowId, int version, String source,
+                                    String matcherSource) {
+    String error = isBlank(source) ? null : validate(source);
+    if (error == null && !isBlank(matcherSource)) {
+      error = validateMatcher(matcherSource);
+    }
+    if (error != null) {
+      log.warn("Condition rejected | flowId={} | {}", flowId, error);
+      return new CompiledCondition(version, source, matcherSource, false, null, null);
+    }
+
+    return new CompiledCondition(version, source, matcherSource, true,
+        isBlank(source) ? null : expressionCompiler.get(source),
+        isBlank(matcherSource) ? null : RequestMatcher.compile(matcherSource));
+  }
+
+  private String attribute(MockFlow flow, String elementName, String attributeName) {
+    return flow.getFlowElements().stream()
+        .filter(e -> elementName.equals(e.getName()))
+        .findFirst()
+        .map(e -> elementService.getAttributeValue(e, attributeName))
+        .orElse(null);
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+
+  private static EvaluationContext sharedContext() {
+    SimpleEvaluationContext context = SimpleEvaluationContext.forReadOnlyDataBinding()
+        .withInstanceMethods()
+        .build();
+    try {
+      Method json = SpelFunctions.class.getDeclaredMethod("json", Object.class);
+      context.setVariable("json", json);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException("SpelFunctions.json is missing", e);
+    }
+    return context;
+  }
+
+  private record CompiledCondition(int version, String source, String matcherSource,
+                                   boolean valid, HotExpression expression,
+                                   RequestMatcher matcher) {
+  }
+
+  /**
+   * Per-evaluation view of the shared context that only adds the {@code #trigger} variable,
+   * so the resolvers and registered functions are built once and never mutated.
+   */
+  private record TriggerContext(TriggerPayload trigger) implements EvaluationContext {
+
+    @Override
+    public TypedValue getRootObject() {
+      return SHARED_CONTEXT.getRootObject();
+    }
+
+    @Override
+    public List<PropertyAccessor> getPropertyAccessors() {
+      return SHARED_CONTEXT.getPropertyAccessors();
+    }
+
+    @Override
+    public List<ConstructorResolver> getConstructorResolvers() {
+      return SHARED_CONTEXT.getConstructorResolvers();
+    }
+
+    @Override
+    public List<MethodResolver> getMethodResolvers() {
+      return SHARED_CONTEXT.getMethodResolvers();
+    }
+
+    @Override
+    public BeanResolver getBeanResolver() {
+      return SHARED_CONTEXT.getBeanResolver();
+    }
+
+    @Override
+    public TypeLocator getTypeLocator() {
+      return SHARED_CONTEXT.getTypeLocator();
+    }
+
+    @Override
+    public TypeConverter getTypeConverter() {
+      return SHARED_CONTEXT.getTypeConverter();
+    }
+
+    @Override
+    public TypeComparator getTypeComparator() {
+      return SHARED_CONTEXT.getTypeComparator();
+    }
+
+    @Override
+    public OperatorOverloader getOperatorOverloader() {
+      return SHARED_CONTEXT.getOperatorOverloader();
+    }
+
+    @Override
+    public void setVariable(String name, Object value) {
+      throw new UnsupportedOperationException("Conditions cannot assign variables");
+    }
+
+    @Override
+    public Object lookupVariable(String name) {
+      return TRIGGER_VARIABLE.equals(name) ? trigger : SHARED_CONTEXT.lookupVariable(name);
+    }
+
+  }
+
+}
@@ -28,9 +28,13 @@ import org.springframework.stereotype.Service;
 public class CreateMockService {
 
   GroupStorage groupStorage;
+  RouteRegistry routeRegistry;
+  ConditionEvaluator conditionEvaluator;
+  FlowPlanRegistry flowPlanRegistry;
   MockFlowStorage mockFlowStorage;
   ValidationService validationService;
   KafkaListenerLifecycleService kafkaListenerLifecycleService;
+  NegativeMatchCache negativeMatchCache;
 
   public void save(CreateMockRequest request) {
     validationService.validate(request);
@@ -42,6 +46,8 @@ public class CreateMockService {
         .id(UUID.randomUUID())
         .name(request.getName())
         .groupId(group.getId())
+        .priority(request.getPriority())
+        .version(1)
         .flowElements(new ArrayList<>())
         .build();
 
@@ -52,6 +58,10 @@ public class CreateMockService {
     flow.setFlowElements(elements);
 
     mockFlowStorage.save(flow);
+    routeRegistry.register(flow);
+    conditionEvaluator.register(flow);
+    flowPlanRegistry.register(flow);
+    negativeMatchCache.invalidate(flow.getGroupId());
     kafkaListenerLifecycleService.startIfExists(flow);
 
     log.info("Mock flow '{}' created with {} elements", flow.getId(), elements.size());
@@ -70,14 +80,25 @@ public class CreateMockService {
         .map(this::toFlowElement)
         .toList();
 
-    flow.setName(request.getName());
-    flow.setFlowElements(elements);
+    // the stored flow is shared by the storage cache, so the update is a new instance
+    MockFlow updated = MockFlow.builder()
+        .id(flow.getId())
+        .groupId(flow.getGroupId())
+        .name(request.getName())
+        .priority(request.getPriority())
+        .version(flow.effectiveVersion() + 1)
+        .flowElements(elements)
+        .build();
 
-    mockFlowStorage.save(flow);
+    mockFlowStorage.save(updated);
+    routeRegistry.register(updated);
+    conditionEvaluator.register(updated);
+    flowPlanRegistry.register(updated);
+    negativeMatchCache.invalidate(updated.getGroupId());
 
-    kafkaListenerLifecycleService.startIfExists(flow);
+    kafkaListenerLifecycleService.startIfExists(updated);
 
-    log.info("MockFlow updated and kafka listener restarted | flowId={}", flow.getId());
+    log.info("MockFlow updated and kafka listener restarted | flowId={}", updated.getId());
   }
 
   private FlowElement toFlowElement(Map<String, Object> step) {
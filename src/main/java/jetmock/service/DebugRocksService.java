@@ -1,11 +1,18 @@
 package jetmock.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.nio.charset.StandardCharsets;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import jetmock.exception.BaseException;
+import jetmock.storage.ColumnFamilies;
+import jetmock.storage.Keys;
+import jetmock.storage.StoreFamily;
+import jetmock.storage.ValueCodec;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksIterator;
 import org.springframework.stereotype.Service;
@@ -15,73 +22,69 @@ import org.springframework.stereotype.Service;
 public class DebugRocksService {
 
   private final RocksDB db;
-  private final ObjectMapper mapper;
+  private final ColumnFamilies families;
+  private final ValueCodec codec;
 
-  public Map<String, JsonNode> dumpAll() {
-    Map<String, JsonNode> result = new LinkedHashMap<>();
-
-    try (RocksIterator it = db.newIterator()) {
-      it.seekToFirst();
-
-      while (it.isValid()) {
-        String key = key(it.key());
-        JsonNode value = readValue(it.value());
-        result.put(key, value);
-        it.next();
-      }
+  public Map<String, Map<String, JsonNode>> dumpAll() {
+    Map<String, Map<String, JsonNode>> result = new LinkedHashMap<>();
+    for (StoreFamily family : StoreFamily.values()) {
+      result.put(family.id(), dumpByPrefix(family.id(), ""));
     }
     return result;
   }
 
-  public Map<String, JsonNode> dumpByPrefix(String prefix) {
+  /**
+   * Dumps the keys of the family starting with the prefix; a prefix that parses as a UUID is
+   * matched as its 16 raw bytes, anything else as UTF-8.
+   */
+  public Map<String, JsonNode> dumpByPrefix(String family, String prefix) {
     Map<String, JsonNode> result = new LinkedHashMap<>();
-
-    byte[] prefixBytes = bytes(prefix);
-
-    try (RocksIterator it = db.newIterator()) {
-      it.seek(prefixBytes);
-
-      while (it.isValid()) {
-        String key = key(it.key());
-        if (!key.startsWith(prefix)) {
-          break;
-        }
-
-        result.put(key, readValue(it.value()));
-        it.next();
+    byte[] prefixBytes = key(prefix);
+
+    // total order seek: the prefix may be shorter than the family's prefix extractor
+    try (ReadOptions options = new ReadOptions().setTotalOrderSeek(true);
+         RocksIterator it = db.newIterator(handle(family), options)) {
+      for (it.seek(prefixBytes); it.isValid() && Keys.startsWith(it.key(), prefixBytes);
+           it.next()) {
+        result.put(Keys.describe(it.key()), readValue(it.value()));
       }
     }
     return result;
   }
 
-  public JsonNode getByKey(String key) {
+  public JsonNode getByKey(String family, String key) {
     try {
-      byte[] value = db.get(bytes(key));
+      byte[] value = db.get(handle(family), key(key));
       if (value == null) {
         return null;
       }
       return readValue(value);
     } catch (Exception e) {
-      throw new IllegalStateException("Failed to read key=" + key, e);
+      throw new IllegalStateException("Failed to read key=" + family + "/" + key, e);
     }
   }
 
+  private ColumnFamilyHandle handle(String family) {
+    return families.get(StoreFamily.of(family).orElseThrow(() ->
+        new BaseException(400, "UNKNOWN_FAMILY", "Unknown column family: " + family)));
+  }
+
   private JsonNode readValue(byte[] bytes) {
     try {
-      return mapper.readTree(bytes);
+      return codec.decodeTree(bytes);
     } catch (Exception e) {
-      return mapper.getNodeFactory().textNode(
+      return JsonNodeFactory.instance.textNode(
           "[BINARY] size=" + bytes.length
       );
     }
   }
 
-  private String key(byte[] bytes) {
-    return new String(bytes, StandardCharsets.UTF_8);
-  }
-
-  private byte[] bytes(String key) {
-    return key.getBytes(StandardCharsets.UTF_8);
+  private byte[] key(String key) {
+    try {
+      return Keys.uuid(UUID.fromString(key));
+    } catch (IllegalArgumentException e) {
+      return Keys.utf8(key);
+    }
   }
 
 }
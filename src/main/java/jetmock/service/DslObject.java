@@ -2,6 +2,7 @@ package jetmock.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.Map;
+import jetmock.dto.payload.TriggerPayload;
 
 public class DslObject {
 
@@ -20,6 +21,9 @@ public class DslObject {
     if (value instanceof Map<?, ?> map) {
       return map.get(field);
     }
+    if (value instanceof TriggerPayload trigger) {
+      return trigger.get(field);
+    }
 
     try {
       var f = value.getClass().getDeclaredField(field);
@@ -30,6 +34,10 @@ public class DslObject {
     }
   }
 
+  public DslObject property(String field) {
+    return new DslObject(get(field));
+  }
+
   public DslObject json() {
     if (value == null) {
       return new DslObject(Map.of());
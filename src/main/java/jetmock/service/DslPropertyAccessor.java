@@ -1,10 +1,15 @@
 package jetmock.service;
 
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
 import org.springframework.expression.EvaluationContext;
-import org.springframework.expression.PropertyAccessor;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
+import org.springframework.expression.spel.CompilablePropertyAccessor;
 
-public class DslPropertyAccessor implements PropertyAccessor {
+public class DslPropertyAccessor implements CompilablePropertyAccessor {
+
+  private static final String DSL_OBJECT = "jetmock/service/DslObject";
 
   @Override
   public Class<?>[] getSpecificTargetClasses() {
@@ -19,8 +24,7 @@ public class DslPropertyAccessor implements PropertyAccessor {
   @Override
   public TypedValue read(EvaluationContext context, Object target, String name) {
     DslObject dsl = (DslObject) target;
-    Object value = dsl.get(name);
-    return new TypedValue(new DslObject(value));
+    return new TypedValue(dsl.property(name));
   }
 
   @Override
@@ -33,4 +37,31 @@ public class DslPropertyAccessor implements PropertyAccessor {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public boolean isCompilable() {
+    return true;
+  }
+
+  @Override
+  public Class<?> getPropertyType() {
+    return DslObject.class;
+  }
+
+  /**
+   * Emits {@code ((DslObject) target).property(name)}, the compiled form of {@link #read}.
+   */
+  @Override
+  public void generateCode(String propertyName, MethodVisitor mv, CodeFlow cf) {
+    String descriptor = cf.lastDescriptor();
+    if (descriptor == null || !descriptor.equals("L" + DSL_OBJECT)) {
+      if (descriptor == null) {
+        cf.loadTarget(mv);
+      }
+      mv.visitTypeInsn(Opcodes.CHECKCAST, DSL_OBJECT);
+    }
+    mv.visitLdcInsn(propertyName);
+    mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, DSL_OBJECT, "property",
+        "(Ljava/lang/String;)L" + DSL_OBJECT + ";", false);
+  }
+
 }
@@ -5,6 +5,7 @@ import static lombok.AccessLevel.PRIVATE;
 import com.fasterxml.jackson.databind.JsonNode;
 import java.lang.reflect.Field;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -12,6 +13,7 @@ import lombok.extern.slf4j.Slf4j;
 import jetmock.domain.ElementAttribute;
 import jetmock.domain.FlowElement;
 import jetmock.domain.GlobalVariable;
+import jetmock.domain.VariableScope;
 import jetmock.dto.payload.CallbackApiPayload;
 import jetmock.dto.payload.GlobalVariablePayload;
 import jetmock.dto.payload.KafkaPublisherPayload;
@@ -30,12 +32,15 @@ public class ElementService {
   GlobalEnvironmentStorage globalEnvironmentStorage;
   PlaceholderService placeholderService;
 
-  public void executeElementAction(FlowElement fe, Map<Integer, Object> context) {
+  public void executeElementAction(CompiledFlow flow, int index, Map<Integer, Object> context) {
+    FlowElement fe = flow.element(index);
     String type = fe.getName();
     switch (type) {
-      case "CALLBACK_API" -> executeCallbackAttributes(fe, context);
-      case "KAFKA_PUBLISHER" -> executeKafkaPublisherAttributes(fe, context);
-      case "GLOBAL_VARIABLE" -> executeGlobalVariableAttributes(fe, context);
+      case "CALLBACK_API" ->
+          callbackService.callbackToClient(resolveCallback(flow, index, context));
+      case "KAFKA_PUBLISHER" ->
+          kafkaPublishService.publishToKafka(resolveKafkaPublisher(flow, index, context));
+      case "GLOBAL_VARIABLE" -> executeGlobalVariableAttributes(flow, index, context);
       default -> log.warn("Unknown element type: {}", type);
     }
   }
@@ -86,47 +91,42 @@ public class ElementService {
     }
   }
 
-  public int findIndex(List<FlowElement> elements, String type) {
-    for (int i = 0; i < elements.size(); i++) {
-      if (type.equals(elements.get(i).getName())) {
-        return i;
-      }
-    }
-    return -1;
+  /**
+   * Renders the body of a {@code KAFKA_PUBLISHER} element and records the payload in the
+   * context; the caller publishes it.
+   */
+  KafkaPublisherPayload resolveKafkaPublisher(CompiledFlow flow, int index,
+                                              Map<Integer, Object> context) {
+    KafkaPublisherPayload template = (KafkaPublisherPayload) flow.payload(index);
+    String resolvedBody = placeholderService.render(flow.template(index), context);
+
+    KafkaPublisherPayload payload = template.toBuilder().body(resolvedBody).build();
+    context.put(flow.element(index).getOrderNumber(), payload);
+    return payload;
   }
 
-  private void executeKafkaPublisherAttributes(FlowElement element, Map<Integer, Object> context) {
-    KafkaPublisherPayload payload =
-        mapAttributes(element.getAttributes(), KafkaPublisherPayload.class);
-
-    String resolvedBody =
-        placeholderService.resolvePlaceholders(payload.getBody(), context);
-
-    payload.setBody(resolvedBody);
-    kafkaPublishService.publishToKafka(payload);
-
-    context.put(element.getOrderNumber(), payload);
+  /**
+   * Renders the body of a {@code CALLBACK_API} element and records the payload in the context;
+   * the caller sends the callback.
+   */
+  CallbackApiPayload resolveCallback(CompiledFlow flow, int index,
+                                     Map<Integer, Object> context) {
+    CallbackApiPayload template = (CallbackApiPayload) flow.payload(index);
+    String resolvedBody = placeholderService.render(flow.template(index), context);
+
+    CallbackApiPayload payload = template.toBuilder().body(resolvedBody).build();
+    context.put(flow.element(index).getOrderNumber(), payload);
+    return payload;
   }
 
-  private void executeCallbackAttributes(FlowElement element, Map<Integer, Object> context) {
-    CallbackApiPayload payload =
-        mapAttributes(element.getAttributes(), CallbackApiPayload.class);
-
-    String resolvedBody =
-        placeholderService.resolvePlaceholders(payload.getBody(), context);
-
-    payload.setBody(resolvedBody);
-    callbackService.callbackToClient(payload);
-
-    context.put(element.getOrderNumber(), payload);
-  }
-
-  private void executeGlobalVariableAttributes(FlowElement element, Map<Integer, Object> context) {
-    GlobalVariablePayload payload =
-        mapAttributes(element.getAttributes(), GlobalVariablePayload.class);
-
-    String resolvedValue =
-        placeholderService.resolvePlaceholders(payload.getVariable(), context);
+  /**
+   * Each item is {@code {"key", "value"}} plus an optional {@code "scope"}: {@code group} or
+   * {@code flow} store the variable for this flow's group or this flow only.
+   */
+  private void executeGlobalVariableAttributes(CompiledFlow flow, int index,
+                                               Map<Integer, Object> context) {
+    GlobalVariablePayload template = (GlobalVariablePayload) flow.payload(index);
+    String resolvedValue = placeholderService.render(flow.template(index), context);
     JsonNode jsonNode = ParserUtil.toJsonNode(resolvedValue);
 
     for (JsonNode node : jsonNode) {
@@ -143,12 +143,22 @@ public class ElementService {
           ? valueNode.asText()
           : null;
 
-      globalEnvironmentStorage.upsert(new GlobalVariable(key, value));
+      globalEnvironmentStorage.upsert(scoped(flow, node.get("scope"), key, value));
 
     }
-    payload.setVariable(resolvedValue);
+    GlobalVariablePayload payload = template.toBuilder().variable(resolvedValue).build();
+
+    context.put(flow.element(index).getOrderNumber(), payload);
+  }
 
-    context.put(element.getOrderNumber(), payload);
+  private static GlobalVariable scoped(CompiledFlow flow, JsonNode scopeNode, String key,
+                                       Object value) {
+    String scope = scopeNode == null || scopeNode.isNull() ? "" : scopeNode.asText();
+    return switch (scope.toLowerCase(Locale.ROOT)) {
+      case "group" -> new GlobalVariable(key, value, VariableScope.GROUP, flow.getGroupId());
+      case "flow" -> new GlobalVariable(key, value, VariableScope.FLOW, flow.getId());
+      default -> new GlobalVariable(key, value);
+    };
   }
 
   public String getAttributeValue(FlowElement e, String path) {
@@ -0,0 +1,49 @@
+package jetmock.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Comparator;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+
+/**
+ * Parses SpEL sources into shared {@link HotExpression}s. Identical sources share one instance,
+ * so conditions and templates referencing the same expression warm up together. The table is
+ * bounded, so sources of edited or deleted flows age out; an evicted source that is still in use
+ * keeps its instance and only stops being shared.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ExpressionCompiler {
+
+  SpelExpressionParser parser = new SpelExpressionParser(
+      new SpelParserConfiguration(SpelCompilerMode.OFF, ExpressionCompiler.class.getClassLoader()));
+  Cache<String, HotExpression> expressions;
+  long threshold;
+
+  public ExpressionCompiler(@Value("${jetmock.spel.compile-threshold:100}") long threshold,
+                            @Value("${jetmock.spel.max-expressions:10000}") long maxExpressions) {
+    // a non-positive threshold disables compilation
+    this.threshold = threshold > 0 ? Math.max(threshold, 2) : Long.MAX_VALUE;
+    this.expressions = Caffeine.newBuilder().maximumSize(maxExpressions).build();
+  }
+
+  public HotExpression get(String source) {
+    return expressions.get(source, s ->
+        new HotExpression((SpelExpression) parser.parseExpression(s), threshold));
+  }
+
+  public List<HotExpression> getAll() {
+    return expressions.asMap().values().stream()
+        .sorted(Comparator.comparingLong(HotExpression::getEvaluations).reversed())
+        .toList();
+  }
+
+}
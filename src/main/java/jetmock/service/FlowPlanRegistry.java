@@ -0,0 +1,160 @@
+package jetmock.service;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import jetmock.domain.FlowElement;
+import jetmock.domain.MockFlow;
+import jetmock.dto.payload.ApiResponsePayload;
+import jetmock.dto.payload.CallbackApiPayload;
+import jetmock.dto.payload.GlobalVariablePayload;
+import jetmock.dto.payload.KafkaPublisherPayload;
+import jetmock.exception.BaseException;
+import jetmock.storage.MockFlowStorage;
+import jetmock.util.ParserUtil;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches one {@link CompiledFlow} per flow. A plan is rebuilt when the requested version differs
+ * from the cached one, so a stale plan is never executed even if an update was missed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class FlowPlanRegistry {
+
+  private static final Map<String, Class<?>> PAYLOAD_TYPES = Map.of(
+      "API_TRIGGER_RESPONSE", ApiResponsePayload.class,
+      "CALLBACK_API", CallbackApiPayload.class,
+      "KAFKA_PUBLISHER", KafkaPublisherPayload.class,
+      "GLOBAL_VARIABLE", GlobalVariablePayload.class);
+
+  MockFlowStorage mockFlowStorage;
+  ElementService elementService;
+  PlaceholderService placeholderService;
+
+  Map<UUID, CompiledFlow> plans = new ConcurrentHashMap<>();
+
+  public CompiledFlow get(UUID flowId, int version) {
+    CompiledFlow plan = plans.get(flowId);
+    if (plan != null && plan.getVersion() == version) {
+      return plan;
+    }
+
+    MockFlow flow = mockFlowStorage.findById(flowId).orElseThrow(() ->
+        new BaseException(404, "MOCK_NOT_FOUND", "Mock data not found"));
+    return register(flow);
+  }
+
+  public CompiledFlow register(MockFlow flow) {
+    CompiledFlow plan = compile(flow);
+    plans.merge(flow.getId(), plan,
+        (current, built) -> current.getVersion() > built.getVersion() ? current : built);
+    return plan;
+  }
+
+  public void evict(UUID flowId) {
+    plans.remove(flowId);
+  }
+
+  private CompiledFlow compile(MockFlow flow) {
+    FlowElement[] elements = flow.getFlowElements().stream()
+        .sorted(Comparator.comparing(FlowElement::getOrderNumber))
+        .toArray(FlowElement[]::new);
+
+    Object[] payloads = new Object[elements.length];
+    Template[] templates = new Template[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Class<?> type = PAYLOAD_TYPES.get(elements[i].getName());
+      if (type != null) {
+        payloads[i] = elementService.mapAttributes(elements[i].getAttributes(), type);
+        templates[i] = placeholderService.compile(templateSource(payloads[i]),
+            flow.getGroupId(), flow.getId());
+      }
+    }
+    int triggerIndex = indexOf(elements, FlowPlanRegistry::isTrigger);
+    int responseIndex = indexOf(elements, "API_TRIGGER_RESPONSE"::equals);
+
+    ApiResponsePayload response = responseIndex < 0
+        ? null : (ApiResponsePayload) payloads[responseIndex];
+    Template body = responseIndex < 0 ? null : templates[responseIndex];
+    HttpHeaders headers = response == null ? HttpHeaders.EMPTY : responseHeaders(response);
+    StaticResponse staticResponse = response == null ? null
+        : staticResponse(response, headers, body);
+    boolean memoize = response != null && memoize(flow, response, body);
+    log.debug("Flow plan compiled | flowId={} | version={} | staticResponse={} | memoize={}",
+        flow.getId(), flow.getVersion(), staticResponse != null, memoize);
+    return new CompiledFlow(flow.getId(), flow.getGroupId(), flow.effectiveVersion(), elements,
+        payloads, templates, triggerIndex, responseIndex, headers, staticResponse, memoize);
+  }
+
+  /**
+   * Memoization only pays off, and is only correct, for templates with placeholders whose
+   * output is a function of the trigger context.
+   */
+  private static boolean memoize(MockFlow flow, ApiResponsePayload response, Template body) {
+    if (!Boolean.TRUE.equals(response.getMemoize()) || body == null || body.isStatic()) {
+      return false;
+    }
+    if (!body.isDeterministic()) {
+      log.warn("Response memoization ignored, body uses random.uuid or global.* | flowId={}",
+          flow.getId());
+      return false;
+    }
+    return true;
+  }
+
+  private static int indexOf(FlowElement[] elements, Predicate<String> name) {
+    for (int i = 0; i < elements.length; i++) {
+      if (name.test(elements[i].getName())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static StaticResponse staticResponse(ApiResponsePayload response, HttpHeaders headers,
+                                               Template body) {
+    if (response.getStatus() == null || (body != null && !body.isStatic())) {
+      return null;
+    }
+    return StaticResponse.of(response.getStatus(), headers,
+        body == null ? new byte[0] : body.sourceBytes());
+  }
+
+  private static String templateSource(Object payload) {
+    if (payload instanceof ApiResponsePayload response) {
+      return response.getBody();
+    }
+    if (payload instanceof CallbackApiPayload callback) {
+      return callback.getBody();
+    }
+    if (payload instanceof KafkaPublisherPayload publisher) {
+      return publisher.getBody();
+    }
+    return ((GlobalVariablePayload) payload).getVariable();
+  }
+
+  private static boolean isTrigger(String name) {
+    return "API_TRIGGER_REQUEST".equals(name) || "KAFKA_TRIGGER".equals(name);
+  }
+
+  private static HttpHeaders responseHeaders(ApiResponsePayload response) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    if (response.getHeader() != null) {
+      ParserUtil.toStringMap(response.getHeader()).forEach(headers::add);
+    }
+    return HttpHeaders.readOnlyHttpHeaders(headers);
+  }
+
+}
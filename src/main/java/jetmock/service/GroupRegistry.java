@@ -0,0 +1,90 @@
+package jetmock.service;
+
+import jakarta.annotation.PostConstruct;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import jetmock.domain.MockGroup;
+import jetmock.exception.BaseException;
+import jetmock.exception.NotFoundException;
+import jetmock.storage.GroupStorage;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory view of the groups, loaded at startup and kept in sync by {@link GroupService}, so
+ * the request path resolves a group name without touching RocksDB.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class GroupRegistry {
+
+  GroupStorage groupStorage;
+
+  Map<String, GroupEntry> byName = new ConcurrentHashMap<>();
+  Map<UUID, GroupEntry> byId = new ConcurrentHashMap<>();
+
+  @PostConstruct
+  public void load() {
+    groupStorage.findAll().forEach(this::register);
+    log.info("Group registry loaded | groups={}", byId.size());
+  }
+
+  public synchronized void register(MockGroup group) {
+    GroupEntry entry = new GroupEntry(group.getId(), normalize(group.getName()),
+        !Boolean.FALSE.equals(group.getIsActive()));
+
+    GroupEntry previous = byId.put(entry.id(), entry);
+    if (previous != null && !previous.name().equals(entry.name())) {
+      byName.remove(previous.name(), previous);
+    }
+    byName.put(entry.name(), entry);
+  }
+
+  public synchronized void unregister(UUID groupId) {
+    GroupEntry previous = byId.remove(groupId);
+    if (previous != null) {
+      byName.remove(previous.name(), previous);
+    }
+  }
+
+  public Optional<UUID> findIdByName(String name) {
+    return Optional.ofNullable(byName.get(normalize(name))).map(GroupEntry::id);
+  }
+
+  /**
+   * Resolves the id of an active group.
+   *
+   * @throws BaseException 404 when the group does not exist, 503 when it is disabled
+   */
+  public UUID resolveActive(String name) {
+    GroupEntry entry = byName.get(normalize(name));
+    if (entry == null) {
+      throw new NotFoundException("GROUP_NOT_FOUND", "Group not found");
+    }
+    if (!entry.active()) {
+      throw new BaseException(503, "GROUP_INACTIVE", "Group is disabled");
+    }
+    return entry.id();
+  }
+
+  public boolean isActive(UUID groupId) {
+    GroupEntry entry = byId.get(groupId);
+    return entry != null && entry.active();
+  }
+
+  private static String normalize(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  private record GroupEntry(UUID id, String name, boolean active) {
+  }
+
+}
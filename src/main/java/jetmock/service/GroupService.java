@@ -8,11 +8,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import jetmock.domain.MockGroup;
+import jetmock.domain.VariableScope;
 import jetmock.dto.GroupRequest;
 import jetmock.dto.GroupResponse;
 import jetmock.dto.UpdateGroupStatusRequest;
 import jetmock.exception.BaseException;
 import jetmock.mapper.GroupMapper;
+import jetmock.storage.GlobalEnvironmentStorage;
 import jetmock.storage.GroupStorage;
 import jetmock.storage.MockFlowStorage;
 import org.springframework.stereotype.Service;
@@ -24,12 +26,16 @@ import org.springframework.stereotype.Service;
 public class GroupService {
 
   GroupStorage groupStorage;
+  GroupRegistry groupRegistry;
   MockFlowStorage mockFlowStorage;
+  KafkaListenerLifecycleService kafkaListenerLifecycleService;
+  NegativeMatchCache negativeMatchCache;
+  GlobalEnvironmentStorage globalEnvironmentStorage;
 
   GroupMapper groupMapper = GroupMapper.INSTANCE;
 
   public void createGroup(GroupRequest groupRequest) {
-    groupStorage.findByName(groupRequest.getName())
+    groupRegistry.findIdByName(groupRequest.getName())
         .ifPresent(existing -> {
           throw new BaseException(400, "GROUP_ALREADY_EXISTS", "Group has already exists: ");
         });
@@ -37,6 +43,7 @@ public class GroupService {
     MockGroup entity = groupMapper.toEntity(groupRequest);
     entity.setIsActive(true);
     groupStorage.save(entity);
+    groupRegistry.register(entity);
     log.info("Group created successfully: {}", entity.getName());
   }
 
@@ -57,6 +64,15 @@ public class GroupService {
 
     entity.setIsActive(request.getIsActive());
     groupStorage.save(entity);
+    groupRegistry.register(entity);
+    negativeMatchCache.invalidate(id);
+
+    if (Boolean.TRUE.equals(request.getIsActive())) {
+      kafkaListenerLifecycleService.resumeGroup(id);
+    } else {
+      kafkaListenerLifecycleService.pauseGroup(id);
+    }
+    log.info("Group status updated | groupId={} | active={}", id, request.getIsActive());
   }
 
   public GroupResponse findById(UUID id) {
@@ -69,6 +85,8 @@ public class GroupService {
         .orElseThrow(() -> new BaseException(404, "GROUP_NOT_FOUND", "Group not found"));
 
     groupStorage.delete(entity.getId());
+    groupRegistry.unregister(entity.getId());
+    globalEnvironmentStorage.deleteScope(VariableScope.GROUP, entity.getId());
 
     log.info("Group deleted: {}", id);
   }
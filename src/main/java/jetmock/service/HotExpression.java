@@ -0,0 +1,89 @@
+package jetmock.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.standard.SpelExpression;
+
+/**
+ * SpEL expression that starts interpreted and is compiled to bytecode once it has been
+ * evaluated {@code threshold} times. If compilation is not possible, or a compiled evaluation
+ * fails, the expression stays interpreted for good.
+ */
+@Slf4j
+public final class HotExpression {
+
+  public enum State {
+    INTERPRETED, COMPILED, NOT_COMPILABLE, FALLBACK
+  }
+
+  private final SpelExpression expression;
+  private final long threshold;
+  private final AtomicLong evaluations = new AtomicLong();
+  private volatile State state = State.INTERPRETED;
+
+  HotExpression(SpelExpression expression, long threshold) {
+    this.expression = expression;
+    this.threshold = threshold;
+  }
+
+  public <T> T getValue(EvaluationContext context, Object root, Class<T> type) {
+    if (evaluations.incrementAndGet() == threshold && state == State.INTERPRETED) {
+      compile();
+    }
+
+    try {
+      return expression.getValue(context, root, type);
+    } catch (SpelEvaluationException e) {
+      if (state != State.COMPILED
+          || e.getMessageCode() != SpelMessage.EXCEPTION_RUNNING_COMPILED_EXPRESSION) {
+        throw e;
+      }
+      fallback(e);
+      return expression.getValue(context, root, type);
+    }
+  }
+
+  public String getSource() {
+    return expression.getExpressionString();
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  public long getEvaluations() {
+    return evaluations.get();
+  }
+
+  private void compile() {
+    boolean compiled;
+    try {
+      compiled = expression.compileExpression();
+    } catch (Exception e) {
+      log.debug("SpEL compilation failed | expression={}", getSource(), e);
+      compiled = false;
+    }
+    state = compiled ? State.COMPILED : State.NOT_COMPILABLE;
+    log.info("SpEL expression {} | expression={}", state, getSource());
+  }
+
+  private void fallback(SpelEvaluationException e) {
+    boolean reverted = false;
+    synchronized (this) {
+      if (state == State.COMPILED) {
+        expression.revertToInterpreted();
+        state = State.FALLBACK;
+        reverted = true;
+      }
+    }
+    // logged outside the monitor: a virtual thread must not block on I/O while pinned
+    if (reverted) {
+      log.warn("Compiled SpEL failed, falling back to interpreter | expression={}",
+          getSource(), e);
+    }
+  }
+
+}
@@ -2,7 +2,9 @@ package jetmock.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -12,6 +14,7 @@ import jetmock.domain.MockFlow;
 import jetmock.dto.ActiveKafkaListenerDto;
 import jetmock.exception.BaseException;
 import jetmock.storage.KafkaBrokerStorage;
+import jetmock.storage.MockFlowStorage;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -22,19 +25,21 @@ public class KafkaListenerLifecycleService {
 
   RuntimeKafkaListenerManager listenerManager;
   KafkaBrokerStorage kafkaBrokerStorage;
+  MockFlowStorage mockFlowStorage;
   ElementService elementService;
+  GroupRegistry groupRegistry;
 
   private static final String GROUP_ID = "group-ms-mock";
 
   public void startIfExists(MockFlow flow) {
-    extractTrigger(flow).ifPresent(t ->
-        listenerManager.start(
-            t.brokerUrl(),
-            t.brokerId(),
-            t.topic(),
-            GROUP_ID
-        )
-    );
+    if (!groupRegistry.isActive(flow.getGroupId())) {
+      return;
+    }
+    // the listener may be shared with a disabled group that paused it
+    extractTrigger(flow).ifPresent(t -> {
+      listenerManager.start(t.brokerUrl(), t.brokerId(), t.topic(), GROUP_ID);
+      listenerManager.resume(t.brokerUrl(), t.topic(), GROUP_ID);
+    });
   }
 
   public void stopIfExists(MockFlow flow) {
@@ -52,6 +57,32 @@ public class KafkaListenerLifecycleService {
     startIfExists(flow);
   }
 
+  /**
+   * Pauses the listeners of a disabled group. A listener that is still used by a flow of an
+   * active group keeps consuming.
+   */
+  public void pauseGroup(UUID groupId) {
+    Set<String> stillUsed = mockFlowStorage.findAll().stream()
+        .filter(f -> !groupId.equals(f.getGroupId()) && groupRegistry.isActive(f.getGroupId()))
+        .flatMap(f -> extractTrigger(f).stream())
+        .map(TriggerInfo::listenerKey)
+        .collect(Collectors.toSet());
+
+    mockFlowStorage.findByGroupId(groupId).stream()
+        .flatMap(f -> extractTrigger(f).stream())
+        .filter(t -> !stillUsed.contains(t.listenerKey()))
+        .forEach(t -> listenerManager.pause(t.brokerUrl(), t.topic(), GROUP_ID));
+  }
+
+  public void resumeGroup(UUID groupId) {
+    mockFlowStorage.findByGroupId(groupId).stream()
+        .flatMap(f -> extractTrigger(f).stream())
+        .forEach(t -> {
+          listenerManager.start(t.brokerUrl(), t.brokerId(), t.topic(), GROUP_ID);
+          listenerManager.resume(t.brokerUrl(), t.topic(), GROUP_ID);
+        });
+  }
+
   private Optional<TriggerInfo> extractTrigger(MockFlow flow) {
     return flow.getFlowElements().stream()
         .filter(e -> "KAFKA_TRIGGER".equals(e.getName()))
@@ -69,6 +100,11 @@ public class KafkaListenerLifecycleService {
   }
 
   private record TriggerInfo(String brokerUrl, String brokerId, String topic) {
+
+    String listenerKey() {
+      return brokerUrl + "|" + topic;
+    }
+
   }
 
   public List<ActiveKafkaListenerDto> getAllActive() {
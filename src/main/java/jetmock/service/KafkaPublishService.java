@@ -1,6 +1,7 @@
 package jetmock.service;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import jetmock.domain.KafkaBroker;
@@ -8,6 +9,7 @@ import jetmock.dto.payload.KafkaPublisherPayload;
 import jetmock.exception.BaseException;
 import jetmock.storage.KafkaBrokerStorage;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -21,21 +23,28 @@ public class KafkaPublishService {
   public void publishToKafka(KafkaPublisherPayload payload) {
     log.info("Publish to kafka started: {}", payload);
     try {
-      String brokerId = payload.getBroker();
-
-      KafkaBroker broker = kafkaBrokerStorage
-          .findById(UUID.fromString(brokerId))
-          .orElseThrow(() -> new BaseException(
-              404, "NOT_FOUND",
-              "Kafka broker tapılmadı: " + brokerId
-          ));
-      KafkaTemplate<String, String> kafkaTemplate =
-          templateFactory.getTemplate(broker.getUrl());
-      kafkaTemplate.send(payload.getTopic(), payload.getBody());
+      send(payload);
       log.info("Publish to kafka completed");
     } catch (Exception ex) {
       log.info("Publish to kafka process failed", ex);
     }
   }
 
+  /**
+   * Hands the record to the producer of the broker and returns without waiting for the ack.
+   */
+  public CompletableFuture<SendResult<String, String>> send(KafkaPublisherPayload payload) {
+    String brokerId = payload.getBroker();
+
+    KafkaBroker broker = kafkaBrokerStorage
+        .findById(UUID.fromString(brokerId))
+        .orElseThrow(() -> new BaseException(
+            404, "NOT_FOUND",
+            "Kafka broker tapılmadı: " + brokerId
+        ));
+    KafkaTemplate<String, String> kafkaTemplate =
+        templateFactory.getTemplate(broker.getUrl());
+    return kafkaTemplate.send(payload.getTopic(), payload.getBody());
+  }
+
 }
@@ -1,8 +1,5 @@
 package jetmock.service;
 
-import static jetmock.contant.Constant.CONDITION_BLACKLIST_REGEX;
-
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,17 +9,11 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import jetmock.domain.FlowElement;
 import jetmock.domain.FlowMatchResult;
 import jetmock.domain.MockFlow;
 import jetmock.dto.payload.TriggerPayload;
-import jetmock.exception.BaseException;
 import jetmock.storage.MockFlowStorage;
 import jetmock.util.ParserUtil;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
@@ -34,75 +25,59 @@ public class KafkaTriggerService {
 
   ElementService elementService;
   MockFlowStorage mockFlowStorage;
+  FlowPlanRegistry flowPlanRegistry;
   AsyncFlowExecutor asyncFlowExecutor;
+  ConditionEvaluator conditionEvaluator;
+  GroupRegistry groupRegistry;
+  NegativeMatchCache negativeMatchCache;
 
-  private static final String KAFKA_TRIGGER = "KAFKA_TRIGGER";
   private static final String CONDITION_PREFIX = "CONDITION";
+  private static final String MATCHER_PREFIX = "MATCHER";
 
   public void processKafkaMessage(String brokerId, String topic, String message) {
     TriggerPayload triggerPayload = buildTriggerPayload(topic, message, brokerId);
     log.info("Kafka trigger invoked | brokerId={} | topic={}", brokerId, topic);
 
-    MockFlow flow = findMock(brokerId, topic, triggerPayload);
+    FlowMatchResult match = findMockFlow(brokerId, topic, triggerPayload);
+    if (match == null) {
+      return;
+    }
+    CompiledFlow flow = flowPlanRegistry.get(match.getId(), match.getVersion());
 
     Map<Integer, Object> context = new HashMap<>();
-    setTriggerContext(flow, triggerPayload, context);
+    context.put(flow.trigger().getOrderNumber(), triggerPayload);
 
-    asyncFlowExecutor.runElementsAfterTrigger(flow.getId(), KAFKA_TRIGGER,
-        context);
+    asyncFlowExecutor.runElementsAfter(flow, flow.getTriggerIndex(), context);
   }
 
   private TriggerPayload buildTriggerPayload(String topic, String message, String brokerId) {
-    Map<String, Object> messageBody = ParserUtil.toMap(message);
-    Map<String, Object> headers = new java.util.HashMap<>();
+    Map<String, Object> headers = new HashMap<>();
     headers.put("topic", topic);
     headers.put("brokerId", brokerId);
 
-    return TriggerPayload.builder()
-        .header(headers)
-        .body(messageBody)
-        .build();
-  }
-
-  private void setTriggerContext(MockFlow flow,
-                                 TriggerPayload payload,
-                                 Map<Integer, Object> context) {
-
-    Integer kafkaTriggerRequestOrder = flow.getFlowElements().stream()
-        .filter(e -> e.getName().equals(KAFKA_TRIGGER))
-        .findAny()
-        .orElseThrow(() ->
-            new IllegalStateException("KAFKA_TRIGGER_REQUEST element was not found in the flow"))
-        .getOrderNumber();
-
-    context.put(kafkaTriggerRequestOrder, payload);
-  }
-
-  private MockFlow findMock(String brokerId,
-                            String topic,
-                            TriggerPayload triggerPayload) {
-
-    FlowMatchResult mockMatch = findMockFlow(brokerId, topic, triggerPayload);
-    return mockFlowStorage.findById(mockMatch.getId())
-        .orElseThrow(() ->
-            new BaseException(404, "MOCK_NOT_FOUND", "Matching mock flow was not found"));
+    return TriggerPayload.lazy(() -> headers, () -> ParserUtil.toMap(message));
   }
 
+  /**
+   * Returns the selected flow, or {@code null} when none matches. Unmatched messages are only
+   * logged at debug level: there is no caller to report a 404 to, and throwing would make the
+   * listener container log and retry every message of an unmocked topic.
+   */
   private FlowMatchResult findMockFlow(String brokerId,
                                        String topic,
                                        TriggerPayload triggerPayload) {
-    Set<MockFlow> flows = mockFlowStorage.findByKafkaTrigger(brokerId, topic);
-
-    List<FlowMatchResult> candidates = flows.stream()
-        .map(this::mapToFlowMatchResult)
-        .collect(Collectors.toList());
+    if (negativeMatchCache.isTopicMiss(brokerId, topic)) {
+      return null;
+    }
 
+    long generation = negativeMatchCache.generation();
+    List<FlowMatchResult> candidates = findCandidates(brokerId, topic);
     if (CollectionUtils.isEmpty(candidates)) {
-      throw new BaseException(404, "MOCK_NOT_FOUND", "No matching mock flow found");
+      negativeMatchCache.topicMiss(generation, brokerId, topic);
+      log.debug("No mock flow for topic | brokerId={} | topic={}", brokerId, topic);
+      return null;
     }
 
-    candidates.sort(Comparator.comparing(FlowMatchResult::getId));
-
     for (FlowMatchResult flow : candidates) {
       if (isConditionEligible(flow, triggerPayload)) {
         log.info(
@@ -116,61 +91,49 @@ public class KafkaTriggerService {
       }
     }
 
-    throw new BaseException(
-        404,
-        "MOCK_NOT_FOUND",
-        "No mock flow matched the evaluated conditions"
-    );
+    log.debug("No mock flow matched the evaluated conditions | brokerId={} | topic={}",
+        brokerId, topic);
+    return null;
   }
 
-  private FlowMatchResult mapToFlowMatchResult(MockFlow flow) {
-    FlowElement conditionElement = flow.getFlowElements().stream()
-        .filter(e -> CONDITION_PREFIX.equals(e.getName()))
-        .findFirst()
-        .orElseThrow(() ->
-            new IllegalStateException(
-                "MockFlow id=" + flow.getId() + " does not contain Condition element"
-            ));
+  private List<FlowMatchResult> findCandidates(String brokerId, String topic) {
+    Set<MockFlow> flows = mockFlowStorage.findByKafkaTrigger(brokerId, topic);
 
-    String conditionExpression =
-        elementService.getAttributeValue(conditionElement, "expression");
+    List<FlowMatchResult> candidates = flows.stream()
+        .filter(f -> groupRegistry.isActive(f.getGroupId()))
+        .map(this::mapToFlowMatchResult)
+        .collect(Collectors.toList());
+    candidates.sort(FlowMatchResult.PRIORITY_ORDER);
+    return candidates;
+  }
 
+  private FlowMatchResult mapToFlowMatchResult(MockFlow flow) {
     return FlowMatchResult.builder()
         .id(flow.getId())
-        .expression(conditionExpression)
+        .version(flow.effectiveVersion())
+        .priority(flow.effectivePriority())
+        .expression(getAttribute(flow, CONDITION_PREFIX, "expression"))
+        .matcher(getAttribute(flow, MATCHER_PREFIX, "predicates"))
         .build();
   }
 
+  private String getAttribute(MockFlow flow, String elementName, String attributeName) {
+    return flow.getFlowElements().stream()
+        .filter(e -> elementName.equals(e.getName()))
+        .findFirst()
+        .map(e -> elementService.getAttributeValue(e, attributeName))
+        .orElse(null);
+  }
+
   private boolean isConditionEligible(FlowMatchResult flow,
                                       TriggerPayload triggerPayload) {
     String condition = flow.getExpression();
 
-    if (condition == null || condition.isBlank()) {
+    if ((condition == null || condition.isBlank()) && flow.getMatcher() == null) {
       return true;
     }
 
-    if (isCodeInjectionAttack(condition)) {
-      log.warn("Potential code injection detected in condition: {}", condition);
-      return false;
-    }
-
-    try {
-      StandardEvaluationContext context = new StandardEvaluationContext();
-      context.setVariable("trigger", triggerPayload);
-
-      ExpressionParser parser = new SpelExpressionParser();
-      Expression exp = parser.parseExpression(condition);
-
-      return Boolean.TRUE.equals(exp.getValue(context, Boolean.class));
-
-    } catch (Exception e) {
-      log.error("Condition evaluation failed | flowId={}", flow.getId(), e);
-    }
-    return false;
-  }
-
-  private boolean isCodeInjectionAttack(String condition) {
-    return condition.matches(CONDITION_BLACKLIST_REGEX);
+    return conditionEvaluator.evaluate(flow, triggerPayload);
   }
 
 }
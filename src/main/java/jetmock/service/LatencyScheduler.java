@@ -0,0 +1,45 @@
+package jetmock.service;
+
+import java.time.Instant;
+import java.util.concurrent.Executor;
+import jetmock.util.ThreadUtil;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Simulates latency. In async mode (the default) a delayed task is armed on a timer and handed
+ * to the given executor when it fires, so no thread is held while waiting. With
+ * {@code jetmock.latency.async=false} the calling thread sleeps as before.
+ */
+@Component
+public class LatencyScheduler {
+
+  private final TaskScheduler scheduler;
+  private final boolean async;
+
+  public LatencyScheduler(@Qualifier("latencyTaskScheduler") TaskScheduler scheduler,
+                          @Value("${jetmock.latency.async:true}") boolean async) {
+    this.scheduler = scheduler;
+    this.async = async;
+  }
+
+  public boolean isAsync() {
+    return async;
+  }
+
+  public void schedule(int delay, Executor executor, Runnable task) {
+    if (delay <= 0) {
+      task.run();
+      return;
+    }
+    if (!async) {
+      ThreadUtil.sleep(delay);
+      task.run();
+      return;
+    }
+    scheduler.schedule(() -> executor.execute(task), Instant.now().plusMillis(delay));
+  }
+
+}
@@ -0,0 +1,124 @@
+package jetmock.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import jetmock.dto.payload.TriggerPayload;
+import jetmock.service.RequestMatcher.Predicate;
+
+/**
+ * Discrimination index over the candidates of one route.
+ *
+ * <p>The selector used by the most {@code equalTo}/{@code in} predicates becomes the
+ * discriminator: it is read once per request and its value picks the bucket of candidates that
+ * can still match. Candidates that do not constrain the discriminator are always kept. The
+ * returned candidates keep their original (priority) order and still have to pass their full
+ * matcher.
+ */
+final class MatcherIndex<T> {
+
+  private final List<T> candidates;
+  private final Predicate discriminator;
+  private final Map<String, int[]> buckets;
+  private final int[] unindexed;
+
+  private MatcherIndex(List<T> candidates, Predicate discriminator,
+                       Map<String, int[]> buckets, int[] unindexed) {
+    this.candidates = candidates;
+    this.discriminator = discriminator;
+    this.buckets = buckets;
+    this.unindexed = unindexed;
+  }
+
+  static <T> MatcherIndex<T> build(List<T> candidates, Function<T, RequestMatcher> matchers) {
+    Predicate discriminator = chooseDiscriminator(candidates, matchers);
+    if (discriminator == null) {
+      return new MatcherIndex<>(candidates, null, Map.of(), new int[0]);
+    }
+
+    Map<String, List<Integer>> buckets = new HashMap<>();
+    List<Integer> unindexed = new ArrayList<>();
+    for (int i = 0; i < candidates.size(); i++) {
+      Predicate predicate = findPredicate(matchers.apply(candidates.get(i)), discriminator.key());
+      if (predicate == null) {
+        unindexed.add(i);
+        continue;
+      }
+      for (String value : predicate.expected()) {
+        buckets.computeIfAbsent(value, v -> new ArrayList<>()).add(i);
+      }
+    }
+
+    Map<String, int[]> compact = new HashMap<>();
+    buckets.forEach((value, indices) -> compact.put(value, toArray(indices)));
+    return new MatcherIndex<>(candidates, discriminator, compact, toArray(unindexed));
+  }
+
+  List<T> select(TriggerPayload trigger) {
+    if (discriminator == null) {
+      return candidates;
+    }
+
+    Object value = discriminator.read(trigger);
+    if (value instanceof Collection<?>) {
+      return candidates;
+    }
+
+    int[] bucket = value == null ? null : buckets.get(String.valueOf(value));
+    return merge(bucket == null ? new int[0] : bucket, unindexed);
+  }
+
+  private List<T> merge(int[] left, int[] right) {
+    List<T> selected = new ArrayList<>(left.length + right.length);
+    int i = 0;
+    int j = 0;
+    while (i < left.length || j < right.length) {
+      if (j == right.length || (i < left.length && left[i] < right[j])) {
+        selected.add(candidates.get(left[i++]));
+      } else {
+        selected.add(candidates.get(right[j++]));
+      }
+    }
+    return selected;
+  }
+
+  private static <T> Predicate chooseDiscriminator(List<T> candidates,
+                                                   Function<T, RequestMatcher> matchers) {
+    Map<String, Integer> counts = new HashMap<>();
+    Map<String, Predicate> predicates = new HashMap<>();
+    for (T candidate : candidates) {
+      RequestMatcher matcher = matchers.apply(candidate);
+      if (matcher == null) {
+        continue;
+      }
+      for (Predicate predicate : matcher.indexablePredicates()) {
+        counts.merge(predicate.key(), 1, Integer::sum);
+        predicates.putIfAbsent(predicate.key(), predicate);
+      }
+    }
+
+    return counts.entrySet().stream()
+        .filter(e -> e.getValue() > 1)
+        .max(Map.Entry.comparingByValue())
+        .map(e -> predicates.get(e.getKey()))
+        .orElse(null);
+  }
+
+  private static Predicate findPredicate(RequestMatcher matcher, String key) {
+    if (matcher == null) {
+      return null;
+    }
+    return matcher.indexablePredicates().stream()
+        .filter(p -> p.key().equals(key))
+        .findFirst()
+        .orElse(null);
+  }
+
+  private static int[] toArray(List<Integer> indices) {
+    return indices.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+}
@@ -0,0 +1,146 @@
+package jetmock.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import jetmock.domain.FlowMatchResult;
+import jetmock.dto.payload.TriggerPayload;
+import jetmock.exception.NotFoundException;
+import jetmock.service.RouteRegistry.RouteMatch;
+import jetmock.util.ParserUtil;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Web-stack neutral part of serving an API trigger: resolving the group, matching the route and
+ * its conditions to a {@link CompiledFlow}, and rendering the response body. The servlet
+ * {@link MockService} and the reactive {@link ReactiveMockService} only differ in how they
+ * read the request, wait for latencies and write the response.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class MockEngine {
+
+  GroupRegistry groupRegistry;
+  RouteRegistry routeRegistry;
+  FlowPlanRegistry flowPlanRegistry;
+  RequestUrlService requestUrlService;
+  ConditionEvaluator conditionEvaluator;
+  NegativeMatchCache negativeMatchCache;
+  PlaceholderService placeholderService;
+  RenderCache renderCache;
+
+  /**
+   * Returns the plan of the flow matching the request and binds the path variables of its
+   * route to the trigger.
+   *
+   * @throws jetmock.exception.BaseException 404 when the group or a matching flow is missing,
+   *                                         503 when the group is disabled
+   */
+  public CompiledFlow match(String groupName, String method, String requestUri,
+                            TriggerPayload triggerPayload) {
+    UUID groupId = groupRegistry.resolveActive(groupName);
+    String path = requestUrlService.getRequestPath(groupName, requestUri);
+    log.info("API trigger called. group={}, method={}, path={}", groupName, method, path);
+
+    RouteMatch route = findMockFlow(groupId, method, path, triggerPayload);
+    triggerPayload.setPath(route.pathVariables());
+    return flowPlanRegistry.get(route.match().getId(), route.match().getVersion());
+  }
+
+  /**
+   * Renders the whole response body; static and memoized bodies are not rendered again.
+   */
+  public byte[] renderBody(CompiledFlow flow, Map<Integer, Object> context) {
+    Template body = flow.template(flow.getResponseIndex());
+    if (body == null) {
+      return new byte[0];
+    }
+    if (body.isStatic()) {
+      return body.sourceBytes();
+    }
+    if (flow.isMemoizeResponse()) {
+      return renderCache.render(flow, body, context);
+    }
+
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.sizeHint());
+    try {
+      placeholderService.write(body, context, buffer);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return buffer.toByteArray();
+  }
+
+  /**
+   * Parses a JSON request body; other content types and malformed JSON yield no body.
+   */
+  public static Map<String, Object> parseBody(String contentType, String requestBody) {
+    if (requestBody == null || requestBody.isBlank()) {
+      return null;
+    }
+    if (contentType != null && !contentType.toLowerCase(Locale.ROOT).contains("json")) {
+      return null;
+    }
+    try {
+      return ParserUtil.toMap(requestBody);
+    } catch (RuntimeException e) {
+      log.warn("Request body is not valid JSON: {}", e.getMessage());
+      return null;
+    }
+  }
+
+  private RouteMatch findMockFlow(UUID groupId, String method, String path,
+                                  TriggerPayload triggerPayload) {
+    if (negativeMatchCache.isRouteMiss(groupId, method, path)) {
+      throw mockNotFound();
+    }
+
+    long generation = negativeMatchCache.generation();
+    List<RouteMatch> candidates = routeRegistry.match(groupId, method, path, triggerPayload);
+    if (candidates.isEmpty()) {
+      if (!routeRegistry.isRouted(groupId, method, path)) {
+        negativeMatchCache.routeMiss(generation, groupId, method, path);
+      }
+      throw mockNotFound();
+    }
+
+    RouteMatch first = candidates.get(0);
+    if (first.sole() && first.match().getMatcher() == null) {
+      return first;
+    }
+
+    for (RouteMatch candidate : candidates) {
+      triggerPayload.setPath(candidate.pathVariables());
+      if (isConditionEligible(candidate.match(), triggerPayload)) {
+        return candidate;
+      }
+    }
+    throw mockNotFound();
+  }
+
+  private static NotFoundException mockNotFound() {
+    return new NotFoundException("MOCK_NOT_FOUND", "Mock data not found");
+  }
+
+  private boolean isConditionEligible(FlowMatchResult flow, TriggerPayload triggerPayload) {
+    String condition = flow.getExpression();
+
+    if ((condition == null || condition.isBlank()) && flow.getMatcher() == null) {
+      log.info("condition is blank");
+      return false;
+    }
+
+    return conditionEvaluator.evaluate(flow, triggerPayload);
+  }
+
+}
@@ -18,9 +18,11 @@ import lombok.extern.slf4j.Slf4j;
 import jetmock.contant.ElementSchema;
 import jetmock.domain.FlowElement;
 import jetmock.domain.MockFlow;
+import jetmock.domain.VariableScope;
 import jetmock.dto.MockDetailResponse;
 import jetmock.dto.MockResponse;
 import jetmock.exception.BaseException;
+import jetmock.storage.GlobalEnvironmentStorage;
 import jetmock.storage.MockFlowStorage;
 import org.springframework.stereotype.Service;
 
@@ -30,8 +32,13 @@ import org.springframework.stereotype.Service;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class MockFlowService {
 
+  RouteRegistry routeRegistry;
+  ConditionEvaluator conditionEvaluator;
+  FlowPlanRegistry flowPlanRegistry;
   MockFlowStorage mockFlowStorage;
   KafkaListenerLifecycleService kafkaListenerLifecycleService;
+  NegativeMatchCache negativeMatchCache;
+  GlobalEnvironmentStorage globalEnvironmentStorage;
 
   public List<MockResponse> getByGroupId(UUID groupId) {
     Set<MockFlow> flows = mockFlowStorage.findByGroupId(groupId);
@@ -98,6 +105,7 @@ public class MockFlowService {
 
     MockDetailResponse detailResponse = new MockDetailResponse();
     detailResponse.setName(flow.getName());
+    detailResponse.setPriority(flow.getPriority());
 
     List<Map<String, Object>> flowSteps = flow.getFlowElements().stream()
         .sorted(Comparator.comparing(FlowElement::getOrderNumber))
@@ -121,6 +129,11 @@ public class MockFlowService {
     kafkaListenerLifecycleService.stopIfExists(flow);
 
     mockFlowStorage.delete(id);
+    routeRegistry.unregister(flow);
+    conditionEvaluator.evict(id);
+    flowPlanRegistry.evict(id);
+    negativeMatchCache.invalidate(flow.getGroupId());
+    globalEnvironmentStorage.deleteScope(VariableScope.FLOW, id);
 
     log.info("Mock deleted and kafka listener stopped | flowId={}", id);
   }
@@ -1,214 +1,152 @@
 package jetmock.service;
 
-import static jetmock.contant.Constant.CONDITION_BLACKLIST_REGEX;
-import static jetmock.contant.Constant.DELIMITER;
-
+import jakarta.servlet.AsyncContext;
 import jakarta.servlet.http.HttpServletRequest;
-import java.util.ArrayList;
-import java.util.Comparator;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.Executor;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
-import jetmock.domain.ElementAttribute;
-import jetmock.domain.FlowElement;
-import jetmock.domain.FlowMatchResult;
-import jetmock.domain.MockFlow;
 import jetmock.dto.payload.ApiResponsePayload;
 import jetmock.dto.payload.TriggerPayload;
-import jetmock.exception.BaseException;
-import jetmock.storage.GroupStorage;
-import jetmock.storage.MockFlowStorage;
-import jetmock.util.ParserUtil;
+import jetmock.exception.ErrorResponseWriter;
 import jetmock.util.ThreadUtil;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
 
 @Slf4j
 @Service
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class MockService {
 
-  GroupStorage groupStorage;
-  ElementService elementService;
-  MockFlowStorage mockFlowStorage;
-  RequestUrlService requestUrlService;
+  private static final long ASYNC_TIMEOUT_MARGIN_MS = 30_000;
+
+  MockEngine mockEngine;
   AsyncFlowExecutor asyncFlowExecutor;
   PlaceholderService placeholderService;
+  LatencyScheduler latencyScheduler;
+  ErrorResponseWriter errorResponseWriter;
+
+  /**
+   * Bodies expected to be smaller than this are buffered and sent with a Content-Length,
+   * larger ones are streamed with chunked transfer encoding.
+   */
+  @NonFinal
+  @Value("${jetmock.response.buffer-limit:65536}")
+  int bufferLimit;
+
+  public void getMockResponse(String groupName,
+                              HttpServletRequest request,
+                              HttpServletResponse response,
+                              String requestBody) {
+    String contentType = request.getContentType();
+    TriggerPayload triggerPayload = TriggerPayload.lazy(() -> new RequestHeaderMap(request),
+        () -> MockEngine.parseBody(contentType, requestBody));
+
+    CompiledFlow flow = mockEngine.match(groupName, request.getMethod(), request.getRequestURI(),
+        triggerPayload);
 
-  public ResponseEntity<Object> getMockResponse(String groupName,
-                                                HttpServletRequest request,
-                                                String requestBody,
-                                                Map<String, Object> headers) {
-    UUID groupId = groupStorage.findByName(groupName).orElseThrow().getId();
     Map<Integer, Object> context = new HashMap<>();
+    context.put(flow.trigger().getOrderNumber(), triggerPayload);
 
-    TriggerPayload triggerPayload =
-        TriggerPayload.builder().header(headers).body(ParserUtil.toMap(requestBody)).build();
-
-    String path = requestUrlService.getRequestPath(groupName, request.getRequestURI());
-    String method = request.getMethod();
-    log.info("API trigger called. group={}, method={}, path={}", groupName, method, path);
-
-    MockFlow flow = findMock(groupId, method, path, triggerPayload);
-
-    Map<String, String> pathVariables =
-        requestUrlService.extractPathVariables(getTriggerPath(flow), path);
-    triggerPayload.setPath(pathVariables);
-
-    setTriggerContext(flow, triggerPayload, context);
-
-    runElementsBeforeResponse(flow, context);
-
-    ResponseEntity<Object> responseEntity = returnResponse(flow, context);
-    asyncFlowExecutor.runElementsAfterTrigger(
-        flow.getId(),
-        "API_TRIGGER_RESPONSE",
-        context
-    );
-    return responseEntity;
-  }
-
-  private void setTriggerContext(MockFlow flow, TriggerPayload payload,
-                                 Map<Integer, Object> context) {
-    Integer apiTriggerRequestOrder = flow.getFlowElements().stream()
-        .filter(e -> e.getName().equals("API_TRIGGER_REQUEST"))
-        .findAny()
-        .orElseThrow()
-        .getOrderNumber();
-
-    context.put(apiTriggerRequestOrder, payload);
-  }
-
-  private ResponseEntity<Object> returnResponse(MockFlow flow,
-                                                Map<Integer, Object> context) {
-    FlowElement flowElement = flow.getFlowElements().stream()
-        .filter(e -> e.getName().equals("API_TRIGGER_RESPONSE"))
-        .findFirst()
-        .orElseThrow();
-    List<ElementAttribute> apiTriggerAttributes = flowElement.getAttributes();
-
-    ApiResponsePayload apiResponsePayload =
-        elementService.mapAttributes(apiTriggerAttributes, ApiResponsePayload.class);
-    ThreadUtil.sleep(apiResponsePayload.getLatency());
-
-    HttpHeaders headers = new HttpHeaders();
-    headers.setContentType(MediaType.APPLICATION_JSON);
-
-    if (apiResponsePayload.getHeader() != null) {
-      ParserUtil.toStringMap(apiResponsePayload.getHeader())
-          .forEach(headers::add);
+    if (latencyScheduler.isAsync() && flow.delayBeforeResponse() > 0) {
+      respondAsync(request, flow, triggerPayload, context);
+      return;
     }
 
-    String body = placeholderService.resolvePlaceholders(apiResponsePayload.getBody(), context);
-    context.put(flowElement.getOrderNumber(), apiResponsePayload);
-
-    return ResponseEntity
-        .status(apiResponsePayload.getStatus())
-        .headers(headers)
-        .body(body);
+    asyncFlowExecutor.runElements(flow, flow.getTriggerIndex() + 1, flow.getResponseIndex(),
+        context, Runnable::run, () -> { });
+    ThreadUtil.sleep(flow.delayBefore(flow.getResponseIndex()));
+    writeResponse(flow, context, response);
+    runElementsAfterResponse(flow, triggerPayload, context);
   }
 
-  private MockFlow findMock(UUID groupId, String method, String path,
-                            TriggerPayload triggerPayload) {
-    FlowMatchResult mock = findMockFlow(groupId, method, path, triggerPayload);
-    return mockFlowStorage.findById(mock.getId()).orElseThrow(() ->
-        new BaseException(404, "MOCK_NOT_FOUND", "Mock data not found"));
+  /**
+   * Completes the request from the latency timer through servlet async, so the worker thread
+   * is released while the simulated latency elapses. Continuations run on container threads
+   * via {@link AsyncContext#start}.
+   */
+  private void respondAsync(HttpServletRequest request, CompiledFlow flow,
+                            TriggerPayload triggerPayload, Map<Integer, Object> context) {
+    AsyncContext async = request.startAsync();
+    async.setTimeout(flow.delayBeforeResponse() + ASYNC_TIMEOUT_MARGIN_MS);
+    Executor resume = task -> async.start(() -> runGuarded(async, task));
+
+    runGuarded(async, () -> asyncFlowExecutor.runElements(flow, flow.getTriggerIndex() + 1,
+        flow.getResponseIndex(), context, resume, () ->
+            latencyScheduler.schedule(flow.delayBefore(flow.getResponseIndex()), resume, () -> {
+              writeResponse(flow, context, (HttpServletResponse) async.getResponse());
+              runElementsAfterResponse(flow, triggerPayload, context);
+              async.complete();
+            })));
   }
 
-  private FlowMatchResult findMockFlow(UUID groupId, String method, String path,
-                                       TriggerPayload triggerPayload) {
-
-    List<FlowMatchResult> candidates = new ArrayList<>();
-    mockFlowStorage.findMatchingByMethodAndPath(groupId, method, path).ifPresent(candidates::add);
-
-    if (CollectionUtils.isEmpty(candidates)) {
-      candidates = findMatchingMockFlow(groupId, method, path);
-    }
-    if (candidates.isEmpty()) {
-      throw new BaseException(404, "MOCK_NOT_FOUND", "Mock data not found");
-    }
-
-    if (candidates.size() == 1) {
-      return candidates.get(0);
+  /**
+   * Elements after the response outlive the request, so request-backed headers are copied
+   * first, and only when such elements exist.
+   */
+  private void runElementsAfterResponse(CompiledFlow flow, TriggerPayload triggerPayload,
+                                        Map<Integer, Object> context) {
+    if (flow.getResponseIndex() + 1 >= flow.size()) {
+      return;
     }
+    triggerPayload.detach();
+    asyncFlowExecutor.runElementsAfter(flow, flow.getResponseIndex(), context);
+  }
 
-    for (FlowMatchResult flow : candidates) {
-      if (isConditionEligible(flow, triggerPayload)) {
-        return flow;
+  private void runGuarded(AsyncContext async, Runnable task) {
+    try {
+      task.run();
+    } catch (RuntimeException e) {
+      try {
+        errorResponseWriter.write((HttpServletRequest) async.getRequest(),
+            (HttpServletResponse) async.getResponse(), e);
+      } catch (IOException io) {
+        log.error("Failed to write the error of an async mock response", io);
       }
+      async.complete();
     }
-    throw new BaseException(404, "MOCK_NOT_FOUND", "Mock data not found");
   }
 
-  private boolean isConditionEligible(FlowMatchResult flow, TriggerPayload triggerPayload) {
-    String condition = flow.getExpression();
-
-    if (condition == null || condition.isBlank()) {
-      log.info("condition is blank");
-      return false;
-    }
-
-    if (isCodeInjectionAttack(condition)) {
-      log.warn("Code injection risk: {}", condition);
-      return false;
-    }
-
+  private void writeResponse(CompiledFlow flow, Map<Integer, Object> context,
+                             HttpServletResponse response) {
     try {
-      StandardEvaluationContext context = new StandardEvaluationContext();
-      context.setVariable("trigger", triggerPayload);
-
-      ExpressionParser parser = new SpelExpressionParser();
-      Expression exp = parser.parseExpression(condition);
-      return Boolean.TRUE.equals(exp.getValue(context, Boolean.class));
-
-    } catch (Exception e) {
-      log.error("Condition evaluation failed", e);
+      writeBody(flow, context, response);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
-    return false;
-  }
-
-  private boolean isCodeInjectionAttack(String condition) {
-    return condition.matches(CONDITION_BLACKLIST_REGEX);
-  }
-
-  private List<FlowMatchResult> findMatchingMockFlow(UUID groupId, String method,
-                                                     String requestUrl) {
-    String[] requestUrlParts = requestUrl.split(DELIMITER);
-    return mockFlowStorage.findMatchingByMethod(groupId, method).stream()
-        .filter(mock -> requestUrlService.urlMatches(mock.getPath(), requestUrlParts))
-        .toList();
+    context.put(flow.responseElement().getOrderNumber(), flow.response());
   }
 
-  private String getTriggerPath(MockFlow flow) {
-    return flow.getFlowElements().stream()
-        .filter(e -> e.getName().equals("API_TRIGGER_REQUEST"))
-        .map(e -> elementService.getAttributeValue(e, "path"))
-        .findFirst()
-        .orElse(null);
-  }
-
-  private void runElementsBeforeResponse(MockFlow flow, Map<Integer, Object> context) {
-    List<FlowElement> elements = new ArrayList<>(flow.getFlowElements());
-    elements.sort(Comparator.comparing(FlowElement::getOrderNumber));
-
-    int start = elementService.findIndex(elements, "API_TRIGGER_REQUEST");
-    int end = elementService.findIndex(elements, "API_TRIGGER_RESPONSE");
+  private void writeBody(CompiledFlow flow, Map<Integer, Object> context,
+                         HttpServletResponse response) throws IOException {
+    if (flow.getStaticResponse() != null) {
+      flow.getStaticResponse().write(response);
+      return;
+    }
 
-    for (int i = start + 1; i < end; i++) {
-      elementService.executeElementAction(elements.get(i), context);
+    ApiResponsePayload apiResponsePayload = flow.response();
+    response.setStatus(apiResponsePayload.getStatus());
+    flow.getResponseHeaders().forEach((name, values) ->
+        values.forEach(value -> response.addHeader(name, value)));
+
+    Template body = flow.template(flow.getResponseIndex());
+    if (body == null || body.sizeHint() < bufferLimit || flow.isMemoizeResponse()) {
+      byte[] bytes = mockEngine.renderBody(flow, context);
+      response.setContentLength(bytes.length);
+      response.getOutputStream().write(bytes);
+    } else {
+      placeholderService.write(body, context, response.getOutputStream());
     }
   }
 
@@ -0,0 +1,83 @@
+package jetmock.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded memory of API paths and Kafka topics that have no mock at all, so repeated unmatched
+ * traffic skips the lookup. Only misses that do not depend on the request payload are recorded.
+ *
+ * <p>Any flow save or delete, and any group status change, starts a new generation and drops the
+ * affected entries. A miss is recorded against the generation its lookup started in and is
+ * discarded if the generation moved on meanwhile, so a concurrent save never leaves a stale miss.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class NegativeMatchCache {
+
+  Cache<RouteKey, Boolean> routeMisses;
+  Cache<TopicKey, Boolean> topicMisses;
+  AtomicLong generation = new AtomicLong();
+
+  public NegativeMatchCache(@Value("${jetmock.negative-cache.max-size:10000}") long maxSize) {
+    this.routeMisses = Caffeine.newBuilder().maximumSize(maxSize).build();
+    this.topicMisses = Caffeine.newBuilder().maximumSize(maxSize).build();
+  }
+
+  public long generation() {
+    return generation.get();
+  }
+
+  public boolean isRouteMiss(UUID groupId, String method, String path) {
+    return routeMisses.getIfPresent(RouteKey.of(groupId, method, path)) != null;
+  }
+
+  public void routeMiss(long lookupGeneration, UUID groupId, String method, String path) {
+    RouteKey key = RouteKey.of(groupId, method, path);
+    routeMisses.put(key, Boolean.TRUE);
+    if (generation.get() != lookupGeneration) {
+      routeMisses.invalidate(key);
+    }
+  }
+
+  public boolean isTopicMiss(String brokerId, String topic) {
+    return topicMisses.getIfPresent(new TopicKey(brokerId, topic)) != null;
+  }
+
+  public void topicMiss(long lookupGeneration, String brokerId, String topic) {
+    TopicKey key = new TopicKey(brokerId, topic);
+    topicMisses.put(key, Boolean.TRUE);
+    if (generation.get() != lookupGeneration) {
+      topicMisses.invalidate(key);
+    }
+  }
+
+  /**
+   * Drops the route misses of the group and every topic miss, since a Kafka trigger of any
+   * group may now match.
+   */
+  public void invalidate(UUID groupId) {
+    generation.incrementAndGet();
+    routeMisses.asMap().keySet().removeIf(key -> key.groupId().equals(groupId));
+    topicMisses.invalidateAll();
+  }
+
+  private record RouteKey(UUID groupId, String method, String path) {
+
+    static RouteKey of(UUID groupId, String method, String path) {
+      return new RouteKey(groupId, method.toUpperCase(Locale.ROOT), path);
+    }
+
+  }
+
+  private record TopicKey(String brokerId, String topic) {
+  }
+
+}
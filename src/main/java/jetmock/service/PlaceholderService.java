@@ -1,5 +1,14 @@
 package jetmock.service;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 import java.util.regex.Matcher;
@@ -8,9 +17,11 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import jetmock.service.Template.Kind;
+import jetmock.service.Template.Placeholder;
+import jetmock.service.Template.Segment;
 import jetmock.storage.GlobalEnvironmentStorage;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.stereotype.Service;
 
@@ -21,91 +32,210 @@ import org.springframework.stereotype.Service;
 public class PlaceholderService {
 
   private static final Pattern PATTERN = Pattern.compile("\\{\\{(.+?)}}");
-  private static final ExpressionParser PARSER = new SpelExpressionParser();
+  private static final String GLOBAL_PREFIX = "global.";
+  private static final EvaluationContext DSL_CONTEXT = dslContext();
   GlobalEnvironmentStorage globalEnvironmentStorage;
+  ExpressionCompiler expressionCompiler;
+
+  /**
+   * Splits the template into literal text and placeholders. Expressions are parsed here, so
+   * rendering never scans or parses the template again.
+   */
+  public Template compile(String template) {
+    return compile(template, null, null);
+  }
 
-
-  public String resolvePlaceholders(String template, Map<Integer, Object> context) {
+  /**
+   * Compiles a template of a flow; its {@code global.*} placeholders see the variables scoped
+   * to the flow and its group before the global ones.
+   */
+  public Template compile(String template, UUID groupId, UUID flowId) {
     if (template == null) {
       return null;
     }
 
+    List<Segment> segments = new ArrayList<>();
+    List<Placeholder> placeholders = new ArrayList<>();
+    Map<String, Integer> slots = new HashMap<>();
     Matcher matcher = PATTERN.matcher(template);
-    StringBuffer sb = new StringBuffer();
+    int last = 0;
 
     while (matcher.find()) {
-      String expr = matcher.group(1).trim();
-      String resolved = resolve(expr, context);
-      matcher.appendReplacement(sb, Matcher.quoteReplacement(resolved));
+      if (matcher.start() > last) {
+        segments.add(Segment.literal(template.substring(last, matcher.start())));
+      }
+      Placeholder placeholder = compilePlaceholder(matcher.group(1).trim());
+      Integer slot = placeholder.kind() == Kind.RANDOM_UUID ? null
+          : slots.get(placeholder.source());
+      if (slot == null) {
+        slot = placeholders.size();
+        placeholders.add(placeholder);
+        slots.put(placeholder.source(), slot);
+      }
+      segments.add(Segment.placeholder(slot));
+      last = matcher.end();
+    }
+
+    if (last < template.length()) {
+      segments.add(Segment.literal(template.substring(last)));
+    }
+    return new Template(template, segments, placeholders, groupId, flowId);
+  }
+
+  public String render(Template template, Map<Integer, Object> context) {
+    if (template == null) {
+      return null;
+    }
+    if (template.isStatic()) {
+      return template.getSource();
+    }
+
+    String[] values = new String[template.placeholders().length];
+    StringBuilder sb = new StringBuilder(template.sizeHint());
+
+    for (Segment segment : template.segments()) {
+      if (segment.slot() < 0) {
+        sb.append(segment.literal());
+      } else {
+        sb.append(value(template, segment.slot(), values, context));
+      }
     }
 
-    matcher.appendTail(sb);
+    template.observe(sb.length());
     return sb.toString();
   }
 
-  private String resolve(String expr, Map<Integer, Object> context) {
-    if ("random.uuid".equalsIgnoreCase(expr)) {
-      return UUID.randomUUID().toString();
+  /**
+   * Renders the template as UTF-8 straight into the stream. Literal segments are written from
+   * their pre-encoded bytes; only placeholder values are encoded per call.
+   */
+  public void write(Template template, Map<Integer, Object> context, OutputStream out)
+      throws IOException {
+    if (template == null) {
+      return;
     }
-    if (expr.startsWith("global.")) {
-      return resolveGlobal(expr);
+    if (template.isStatic()) {
+      out.write(template.sourceBytes());
+      return;
     }
+    write(template, new String[template.placeholders().length], context, out);
+  }
 
-    //    if (expr.startsWith("cache.")) {
-    //      return dataCache.get(expr.substring(6)).orElse("");
-    //    }
+  /**
+   * Resolves every placeholder of the template, in slot order.
+   */
+  public String[] resolveAll(Template template, Map<Integer, Object> context) {
+    Placeholder[] placeholders = template.placeholders();
+    String[] values = new String[placeholders.length];
+    for (int i = 0; i < placeholders.length; i++) {
+      values[i] = resolve(template, placeholders[i], context);
+    }
+    return values;
+  }
 
-    // 🔥 MAIN DSL ENTRY
-    return resolveDsl(expr, context);
+  /**
+   * Renders the template as UTF-8 from values produced by {@link #resolveAll}.
+   */
+  public byte[] renderBytes(Template template, String[] values) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(template.sizeHint());
+    try {
+      write(template, values, Map.of(), out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  private void write(Template template, String[] values, Map<Integer, Object> context,
+                     OutputStream out) throws IOException {
+    int written = 0;
+    for (Segment segment : template.segments()) {
+      byte[] bytes = segment.slot() < 0 ? segment.bytes()
+          : value(template, segment.slot(), values, context).getBytes(StandardCharsets.UTF_8);
+      out.write(bytes);
+      written += bytes.length;
+    }
+    template.observe(written);
+  }
+
+  private String value(Template template, int slot, String[] values,
+                       Map<Integer, Object> context) {
+    String value = values[slot];
+    if (value == null) {
+      value = resolve(template, template.placeholders()[slot], context);
+      values[slot] = value;
+    }
+    return value;
   }
 
-  private String resolveDsl(String expr, Map<Integer, Object> context) {
+  private Placeholder compilePlaceholder(String expr) {
+    if ("random.uuid".equalsIgnoreCase(expr)) {
+      return new Placeholder(Kind.RANDOM_UUID, expr, null, 0, null);
+    }
+    if (expr.startsWith(GLOBAL_PREFIX)) {
+      String key = expr.substring(GLOBAL_PREFIX.length()).trim().toLowerCase(Locale.ROOT);
+      return new Placeholder(key.isEmpty() ? Kind.EMPTY : Kind.GLOBAL, expr, key, 0, null);
+    }
+
+    // 🔥 MAIN DSL ENTRY
     try {
       int dot = expr.indexOf('.');
       if (dot == -1) {
-        return "";
+        return new Placeholder(Kind.EMPTY, expr, null, 0, null);
       }
 
       int order = Integer.parseInt(expr.substring(0, dot));
-      Object raw = context.get(order);
+      HotExpression expression = expressionCompiler.get(expr.substring(dot + 1));
+      return new Placeholder(Kind.DSL, expr, null, order, expression);
+    } catch (Exception e) {
+      log.error("DSL compile error: {}", expr, e);
+      return new Placeholder(Kind.EMPTY, expr, null, 0, null);
+    }
+  }
+
+  private String resolve(Template template, Placeholder placeholder,
+                         Map<Integer, Object> context) {
+    return switch (placeholder.kind()) {
+      case RANDOM_UUID -> UUID.randomUUID().toString();
+      case GLOBAL -> resolveGlobal(template, placeholder.key());
+      case DSL -> resolveDsl(placeholder, context);
+      default -> "";
+    };
+  }
+
+  private String resolveDsl(Placeholder placeholder, Map<Integer, Object> context) {
+    try {
+      Object raw = context.get(placeholder.order());
       if (raw == null) {
         return "";
       }
 
-      DslObject root = new DslObject(raw);
-
-      StandardEvaluationContext spelContext =
-          new StandardEvaluationContext(root);
-
-      spelContext.addPropertyAccessor(new DslPropertyAccessor());
-
-      Object value =
-          PARSER.parseExpression(expr.substring(dot + 1))
-              .getValue(spelContext);
+      Object value = placeholder.expression()
+          .getValue(DSL_CONTEXT, new DslObject(raw), Object.class);
 
       return value != null ? value.toString() : "";
 
     } catch (Exception e) {
-      log.error("DSL resolve error: {}", expr, e);
+      log.error("DSL resolve error: {}", placeholder.source(), e);
       return "";
     }
   }
 
-  private String resolveGlobal(String expr) {
-    try {
-      String key = expr.substring("global.".length()).trim();
-
-      if (key.isEmpty()) {
-        return "";
-      }
+  private static EvaluationContext dslContext() {
+    StandardEvaluationContext context = new StandardEvaluationContext();
+    context.addPropertyAccessor(new DslPropertyAccessor());
+    return context;
+  }
 
+  private String resolveGlobal(Template template, String key) {
+    try {
       return globalEnvironmentStorage
-          .getValueByKey(key)
+          .resolve(key, template.groupId(), template.flowId())
           .map(Object::toString)
           .orElse("");
 
     } catch (Exception e) {
-      log.error("Global resolve error: {}", expr, e);
+      log.error("Global resolve error: {}", key, e);
       return "";
     }
   }
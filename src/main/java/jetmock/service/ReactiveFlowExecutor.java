@@ -0,0 +1,107 @@
+package jetmock.service;
+
+import java.time.Duration;
+import java.util.Map;
+import jetmock.dto.payload.CallbackApiPayload;
+import jetmock.dto.payload.KafkaPublisherPayload;
+import jetmock.util.ParserUtil;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive counterpart of {@link AsyncFlowExecutor}. Latencies are {@link Mono#delay} timers,
+ * callbacks go through a non-blocking {@link WebClient} and Kafka records are sent without
+ * waiting on a thread for the ack, so a waiting flow holds no thread at all. Other elements
+ * run through {@link ElementService} on the bounded elastic scheduler.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReactiveFlowExecutor {
+
+  ElementService elementService;
+  KafkaPublishService kafkaPublishService;
+  WebClient webClient;
+
+  public ReactiveFlowExecutor(ElementService elementService,
+                              KafkaPublishService kafkaPublishService,
+                              WebClient.Builder webClientBuilder) {
+    this.elementService = elementService;
+    this.kafkaPublishService = kafkaPublishService;
+    this.webClient = webClientBuilder.build();
+  }
+
+  /**
+   * Executes the elements in {@code [from, to)} one after another, each after its latency.
+   */
+  public Mono<Void> runElements(CompiledFlow flow, int from, int to,
+                                Map<Integer, Object> context) {
+    if (from >= to) {
+      return Mono.empty();
+    }
+    return Flux.range(from, to - from)
+        .concatMap(i -> delay(flow.delayBefore(i))
+            .then(Mono.defer(() -> execute(flow, i, context))))
+        .then();
+  }
+
+  public static Mono<Void> delay(int millis) {
+    return millis > 0 ? Mono.delay(Duration.ofMillis(millis)).then() : Mono.empty();
+  }
+
+  private Mono<Void> execute(CompiledFlow flow, int index, Map<Integer, Object> context) {
+    return switch (flow.element(index).getName()) {
+      case "CALLBACK_API" -> callback(elementService.resolveCallback(flow, index, context));
+      case "KAFKA_PUBLISHER" ->
+          publish(elementService.resolveKafkaPublisher(flow, index, context));
+      default -> Mono.fromRunnable(() -> elementService.executeElementAction(flow, index, context))
+          .subscribeOn(Schedulers.boundedElastic())
+          .then();
+    };
+  }
+
+  private Mono<Void> callback(CallbackApiPayload payload) {
+    log.info("callback to client started: {}", payload);
+    return Mono.defer(() -> webClient.method(HttpMethod.valueOf(payload.getMethod()))
+            .uri(payload.getPath())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(ParserUtil.toJsonNode(payload.getBody()))
+            .retrieve()
+            .toBodilessEntity())
+        .doOnSuccess(response -> log.info("callback to client finished"))
+        .onErrorResume(e -> {
+          log.error("callback failed: {},{},{}", e.getMessage(), payload.getPath(),
+              payload.getBody());
+          return Mono.empty();
+        })
+        .then();
+  }
+
+  /**
+   * The producer may block on a metadata fetch while sending, so the send is subscribed on the
+   * bounded elastic scheduler; the ack itself is awaited without a thread.
+   */
+  private Mono<Void> publish(KafkaPublisherPayload payload) {
+    log.info("Publish to kafka started: {}", payload);
+    return Mono.fromFuture(() -> kafkaPublishService.send(payload))
+        .subscribeOn(Schedulers.boundedElastic())
+        .doOnSuccess(result -> log.info("Publish to kafka completed"))
+        .onErrorResume(e -> {
+          log.info("Publish to kafka process failed", e);
+          return Mono.empty();
+        })
+        .then();
+  }
+
+}
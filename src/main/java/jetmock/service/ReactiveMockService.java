@@ -0,0 +1,91 @@
+package jetmock.service;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import jetmock.dto.payload.ApiResponsePayload;
+import jetmock.dto.payload.TriggerPayload;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link MockService}: matching and rendering come from
+ * {@link MockEngine}, latencies and elements from {@link ReactiveFlowExecutor}. A request
+ * waiting for its latency is only a pending timer, not a parked thread.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReactiveMockService {
+
+  MockEngine mockEngine;
+  ReactiveFlowExecutor reactiveFlowExecutor;
+
+  public Mono<ServerResponse> getMockResponse(String groupName, ServerRequest request) {
+    return request.bodyToMono(String.class)
+        .defaultIfEmpty("")
+        .flatMap(requestBody -> respond(groupName, request, requestBody));
+  }
+
+  private Mono<ServerResponse> respond(String groupName, ServerRequest request,
+                                       String requestBody) {
+    HttpHeaders headers = request.headers().asHttpHeaders();
+    String contentType = request.headers().contentType().map(MediaType::toString).orElse(null);
+    TriggerPayload triggerPayload = TriggerPayload.lazy(() -> headerMap(headers),
+        () -> MockEngine.parseBody(contentType, requestBody));
+
+    CompiledFlow flow = mockEngine.match(groupName, request.method().name(), request.path(),
+        triggerPayload);
+
+    Map<Integer, Object> context = new HashMap<>();
+    context.put(flow.trigger().getOrderNumber(), triggerPayload);
+
+    int responseIndex = flow.getResponseIndex();
+    return reactiveFlowExecutor
+        .runElements(flow, flow.getTriggerIndex() + 1, responseIndex, context)
+        .then(ReactiveFlowExecutor.delay(flow.delayBefore(responseIndex)))
+        .then(Mono.fromSupplier(() -> mockEngine.renderBody(flow, context)))
+        .flatMap(body -> {
+          ApiResponsePayload response = flow.response();
+          context.put(flow.responseElement().getOrderNumber(), response);
+          runElementsAfterResponse(flow, context);
+          return ServerResponse.status(response.getStatus())
+              .headers(h -> h.addAll(flow.getResponseHeaders()))
+              .bodyValue(body);
+        });
+  }
+
+  private void runElementsAfterResponse(CompiledFlow flow, Map<Integer, Object> context) {
+    if (flow.getResponseIndex() + 1 >= flow.size()) {
+      return;
+    }
+    reactiveFlowExecutor.runElements(flow, flow.getResponseIndex() + 1, flow.size(), context)
+        .subscribe(null,
+            e -> log.error("Async execution failed | flow={}", flow.getId(), e),
+            () -> log.info("Finished async execution | flow={} | after={}",
+                flow.getId(), flow.responseElement().getName()));
+  }
+
+  /**
+   * Copies the first value of every header, which is what the servlet trigger exposes.
+   */
+  private static Map<String, Object> headerMap(HttpHeaders headers) {
+    Map<String, Object> map = new LinkedCaseInsensitiveMap<>(headers.size(), Locale.ROOT);
+    headers.forEach((name, values) -> map.put(name, values.isEmpty() ? null : values.get(0)));
+    return map;
+  }
+
+}
@@ -0,0 +1,85 @@
+package jetmock.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.UUID;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rendered response bodies of flows that opt in with {@code memoize} on their
+ * {@code API_TRIGGER_RESPONSE}. The key is the flow version plus a SHA-256 digest of the
+ * resolved values of the placeholders the template references, so a hit skips encoding the body
+ * and large inputs do not inflate the key. Entries of older versions can no longer be hit and
+ * are left to eviction. The cache is bounded by the total size of the entries with W-TinyLFU
+ * eviction; hits and misses are published as {@code cache.gets{cache="jetmock.render"}}.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RenderCache {
+
+  private static final String CACHE_NAME = "jetmock.render";
+  private static final int KEY_WEIGHT = 64;
+
+  PlaceholderService placeholderService;
+  Cache<Key, byte[]> cache;
+
+  public RenderCache(PlaceholderService placeholderService, MeterRegistry meterRegistry,
+                     @Value("${jetmock.render-cache.max-bytes:67108864}") long maxBytes) {
+    this.placeholderService = placeholderService;
+    this.cache = Caffeine.newBuilder()
+        .maximumWeight(maxBytes)
+        .weigher((Key key, byte[] body) -> body.length + KEY_WEIGHT)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  public byte[] render(CompiledFlow flow, Template template, Map<Integer, Object> context) {
+    String[] values = placeholderService.resolveAll(template, context);
+    ByteBuffer digest = ByteBuffer.wrap(digest(values));
+    Key key = new Key(flow.getId(), flow.getVersion(), digest.getLong(), digest.getLong());
+    return cache.get(key, k -> placeholderService.renderBytes(template, values));
+  }
+
+  /**
+   * Each value is prefixed with its length (-1 for {@code null}), so no two value lists share an
+   * input to the digest.
+   */
+  private static byte[] digest(String[] values) {
+    MessageDigest sha = sha256();
+    ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+    for (String value : values) {
+      byte[] bytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+      sha.update(length.clear().putInt(bytes == null ? -1 : bytes.length).array());
+      if (bytes != null) {
+        sha.update(bytes);
+      }
+    }
+    return sha.digest();
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * The first 128 bits of the digest identify the inputs.
+   */
+  private record Key(UUID flowId, int version, long high, long low) {
+  }
+
+}
@@ -0,0 +1,41 @@
+package jetmock.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only, case-insensitive view of the request headers. Lookups go straight to the servlet
+ * request; the full entry set is only built when something iterates the headers.
+ */
+final class RequestHeaderMap extends AbstractMap<String, Object> {
+
+  private final HttpServletRequest request;
+
+  RequestHeaderMap(HttpServletRequest request) {
+    this.request = request;
+  }
+
+  @Override
+  public Object get(Object key) {
+    return key instanceof String name ? request.getHeader(name) : null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    Set<Entry<String, Object>> entries = new LinkedHashSet<>();
+    for (String name : Collections.list(request.getHeaderNames())) {
+      entries.add(Map.entry(name, request.getHeader(name)));
+    }
+    return entries;
+  }
+
+}
@@ -0,0 +1,168 @@
+package jetmock.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import jetmock.contant.MatchOperator;
+import jetmock.dto.payload.MatchPredicate;
+import jetmock.dto.payload.TriggerPayload;
+import jetmock.util.ParserUtil;
+
+/**
+ * Compiled form of a {@code MATCHER} element: a conjunction of predicates over JSONPath
+ * selectors evaluated against the trigger header, path or body.
+ */
+public final class RequestMatcher {
+
+  private static final TypeReference<List<MatchPredicate>> PREDICATE_LIST =
+      new TypeReference<>() {
+      };
+  private static final Configuration JSON_PATH_CONFIG =
+      Configuration.defaultConfiguration().addOptions(Option.SUPPRESS_EXCEPTIONS);
+
+  private final List<Predicate> predicates;
+
+  private RequestMatcher(List<Predicate> predicates) {
+    this.predicates = predicates;
+  }
+
+  /**
+   * Compiles the JSON array stored in the {@code predicates} attribute.
+   *
+   * @throws IllegalArgumentException when the predicates cannot be compiled
+   */
+  public static RequestMatcher compile(String json) {
+    List<MatchPredicate> definitions;
+    try {
+      definitions = ParserUtil.parseTo(json, PREDICATE_LIST);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("predicates must be a JSON array", e);
+    }
+    if (definitions == null || definitions.isEmpty()) {
+      throw new IllegalArgumentException("predicates must not be empty");
+    }
+    return new RequestMatcher(definitions.stream().map(Predicate::compile).toList());
+  }
+
+  public boolean test(TriggerPayload trigger) {
+    for (Predicate predicate : predicates) {
+      if (!predicate.test(trigger)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Equality predicates ({@code equalTo} and {@code in}) on header or body selectors, which
+   * {@link MatcherIndex} can use to route requests without evaluating the matcher.
+   */
+  List<Predicate> indexablePredicates() {
+    return predicates.stream()
+        .filter(p -> p.expected() != null && !"path".equals(p.source()))
+        .toList();
+  }
+
+  record Predicate(String source, String selector, JsonPath path, MatchOperator operator,
+                   Set<String> expected, Pattern pattern, Double min, Double max) {
+
+    static Predicate compile(MatchPredicate definition) {
+      String source = normalizeSource(definition.getSource());
+      if (definition.getSelector() == null || definition.getOp() == null) {
+        throw new IllegalArgumentException("selector and op are required");
+      }
+
+      MatchOperator operator = MatchOperator.from(definition.getOp());
+      JsonPath path = JsonPath.compile(definition.getSelector());
+      return switch (operator) {
+        case EQUAL_TO -> new Predicate(source, definition.getSelector(), path, operator,
+            Set.of(String.valueOf(required(definition.getValue()))), null, null, null);
+        case IN -> new Predicate(source, definition.getSelector(), path, operator,
+            asStrings(definition.getValues()), null, null, null);
+        case REGEX -> new Predicate(source, definition.getSelector(), path, operator, null,
+            Pattern.compile(String.valueOf(required(definition.getValue()))), null, null);
+        case RANGE -> new Predicate(source, definition.getSelector(), path, operator, null,
+            null, definition.getMin(), definition.getMax());
+        default -> new Predicate(source, definition.getSelector(), path, operator,
+            null, null, null, null);
+      };
+    }
+
+    /**
+     * Key identifying the selector, shared by predicates reading the same value.
+     */
+    String key() {
+      return source + '|' + selector;
+    }
+
+    Object read(TriggerPayload trigger) {
+      Object document = switch (source) {
+        case "header" -> trigger.getHeader();
+        case "path" -> trigger.getPath();
+        default -> trigger.getBody();
+      };
+      return document == null ? null : path.read(document, JSON_PATH_CONFIG);
+    }
+
+    boolean test(TriggerPayload trigger) {
+      Object value = read(trigger);
+      if (value instanceof Collection<?> values) {
+        return values.stream().anyMatch(this::accepts);
+      }
+      return accepts(value);
+    }
+
+    private boolean accepts(Object value) {
+      if (value == null) {
+        return false;
+      }
+      return switch (operator) {
+        case EQUAL_TO, IN -> expected.contains(String.valueOf(value));
+        case REGEX -> pattern.matcher(String.valueOf(value)).matches();
+        case RANGE -> inRange(value);
+        default -> true;
+      };
+    }
+
+    private boolean inRange(Object value) {
+      double number;
+      try {
+        number = value instanceof Number n ? n.doubleValue() : Double.parseDouble(value.toString());
+      } catch (NumberFormatException e) {
+        return false;
+      }
+      return (min == null || number >= min) && (max == null || number <= max);
+    }
+
+    private static String normalizeSource(String source) {
+      String normalized = source == null ? "body" : source.toLowerCase(Locale.ROOT);
+      if (!Set.of("header", "path", "body").contains(normalized)) {
+        throw new IllegalArgumentException("source must be one of header, path, body");
+      }
+      return normalized;
+    }
+
+    private static Object required(Object value) {
+      if (value == null) {
+        throw new IllegalArgumentException("value is required");
+      }
+      return value;
+    }
+
+    private static Set<String> asStrings(List<Object> values) {
+      if (values == null || values.isEmpty()) {
+        throw new IllegalArgumentException("values must not be empty");
+      }
+      return values.stream().map(String::valueOf).collect(Collectors.toUnmodifiableSet());
+    }
+
+  }
+
+}
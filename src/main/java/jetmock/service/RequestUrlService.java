@@ -1,9 +1,8 @@
 package jetmock.service;
 
 import static jetmock.contant.Constant.DELIMITER;
+import static jetmock.contant.Constant.RESERVED_PREFIXES;
 
-import java.util.HashMap;
-import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -13,35 +12,18 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class RequestUrlService {
 
-  public boolean urlMatches(String mockUrl, String[] requestUrlParts) {
-    String[] mockUrlParts = mockUrl.split(DELIMITER);
-
-    if (mockUrlParts.length != requestUrlParts.length) {
-      return false;
-    }
-
-    for (int i = 0; i < mockUrlParts.length; i++) {
-      if (!mockUrlParts[i].startsWith(":") && !mockUrlParts[i].equals(requestUrlParts[i])) {
-        return false;
-      }
-    }
-    return true;
+  /**
+   * Returns the first segment of the URI, or {@code null} when it is empty or reserved for the
+   * admin endpoints.
+   */
+  public String getGroupName(String requestUri) {
+    String segment = getFirstSegment(requestUri);
+    return segment.isEmpty() || RESERVED_PREFIXES.contains(segment) ? null : segment;
   }
 
-  public Map<String, String> extractPathVariables(String mockUrl,
-                                                  String requestUrl) {
-    String[] requestUrlParts = requestUrl.split(DELIMITER);
-    String[] mockUrlParts = mockUrl.split(DELIMITER);
-
-    Map<String, String> pathVariables = new HashMap<>();
-    for (int i = 0; i < mockUrlParts.length; i++) {
-      String mockUrlPart = mockUrlParts[i];
-      String requestUrlPart = requestUrlParts[i];
-      if (mockUrlPart.startsWith(":")) {
-        pathVariables.put(mockUrlPart.substring(1), requestUrlPart);
-      }
-    }
-    return pathVariables;
+  public String getFirstSegment(String requestUri) {
+    int end = requestUri.indexOf('/', 1);
+    return end < 0 ? requestUri.substring(1) : requestUri.substring(1, end);
   }
 
   public String getRequestPath(String groupName, String requestUri) {
@@ -0,0 +1,321 @@
+package jetmock.service;
+
+import static jetmock.contant.Constant.DELIMITER;
+
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import jetmock.domain.FlowElement;
+import jetmock.domain.FlowMatchResult;
+import jetmock.domain.MockFlow;
+import jetmock.dto.payload.TriggerPayload;
+import jetmock.storage.MockFlowStorage;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory route table for API triggers.
+ *
+ * <p>Every group owns an immutable trie per HTTP method, made of static segments and
+ * {@code :param} segments. A write rebuilds only the trie of the affected method, with its
+ * matcher indexes, and swaps the group in, so it costs in proportion to the routes of that
+ * method. Request threads match in O(path depth) without locks, RocksDB reads or JSON
+ * decoding. Each route keeps a {@link MatcherIndex} over the {@code MATCHER} predicates of its
+ * candidates.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RouteRegistry {
+
+  private static final String API_TRIGGER_REQUEST = "API_TRIGGER_REQUEST";
+  private static final String CONDITION = "CONDITION";
+  private static final String MATCHER = "MATCHER";
+
+  MockFlowStorage mockFlowStorage;
+  ElementService elementService;
+  ConditionEvaluator conditionEvaluator;
+
+  Map<UUID, GroupRoutes> groups = new ConcurrentHashMap<>();
+
+  /**
+   * Builds every group trie once from the route index kept by {@link MockFlowStorage}.
+   */
+  @PostConstruct
+  public void load() {
+    Map<UUID, List<FlowMatchResult>> routes = mockFlowStorage.findAllRoutes();
+    int count = 0;
+    for (Map.Entry<UUID, List<FlowMatchResult>> group : routes.entrySet()) {
+      Map<UUID, FlowMatchResult> byId = new HashMap<>();
+      group.getValue().forEach(match -> byId.put(match.getId(), match));
+      groups.put(group.getKey(), GroupRoutes.build(byId, conditionEvaluator::matcher));
+      count += byId.size();
+    }
+    log.info("Route registry loaded | groups={} | flows={}", groups.size(), count);
+  }
+
+  public void register(MockFlow flow) {
+    FlowMatchResult match = buildMatch(flow);
+    if (match.getMethod() == null || match.getPath() == null) {
+      unregister(flow);
+      return;
+    }
+
+    groups.compute(flow.getGroupId(), (groupId, routes) ->
+        (routes == null ? GroupRoutes.EMPTY : routes).with(match, conditionEvaluator::matcher));
+  }
+
+  public void unregister(MockFlow flow) {
+    groups.computeIfPresent(flow.getGroupId(), (groupId, routes) ->
+        routes.without(flow.getId(), conditionEvaluator::matcher));
+  }
+
+  /**
+   * Returns the candidates of the most specific route matching the path, static segments
+   * taking precedence over {@code :param} segments, in {@link FlowMatchResult#PRIORITY_ORDER}.
+   * Candidates whose indexed {@code MATCHER} predicates cannot hold for the trigger are skipped.
+   */
+  public List<RouteMatch> match(UUID groupId, String method, String path,
+                                TriggerPayload trigger) {
+    String[] segments = path.split(DELIMITER);
+    RouteNode leaf = leaf(groupId, method, segments);
+    if (leaf == null) {
+      return List.of();
+    }
+
+    List<RouteEntry> entries = leaf.index.select(trigger);
+    boolean sole = leaf.entries.size() == 1;
+    List<RouteMatch> matches = new ArrayList<>(entries.size());
+    for (RouteEntry entry : entries) {
+      matches.add(new RouteMatch(entry.match(), entry.pathVariables(segments), sole));
+    }
+    return matches;
+  }
+
+  /**
+   * Whether any flow is routed at the path, regardless of the predicates of its matchers.
+   */
+  public boolean isRouted(UUID groupId, String method, String path) {
+    return leaf(groupId, method, path.split(DELIMITER)) != null;
+  }
+
+  private RouteNode leaf(UUID groupId, String method, String[] segments) {
+    GroupRoutes group = groups.get(groupId);
+    if (group == null) {
+      return null;
+    }
+
+    MethodRoutes routes = group.methods().get(method.toUpperCase(Locale.ROOT));
+    return routes == null ? null : routes.root().find(segments, 0);
+  }
+
+  private FlowMatchResult buildMatch(MockFlow flow) {
+    String path = null;
+    String method = null;
+    String expression = null;
+    String matcher = null;
+
+    for (FlowElement e : flow.getFlowElements()) {
+      if (API_TRIGGER_REQUEST.equals(e.getName())) {
+        path = elementService.getAttributeValue(e, "path");
+        method = elementService.getAttributeValue(e, "method");
+      }
+      if (CONDITION.equals(e.getName())) {
+        expression = elementService.getAttributeValue(e, "expression");
+      }
+      if (MATCHER.equals(e.getName())) {
+        matcher = elementService.getAttributeValue(e, "predicates");
+      }
+    }
+
+    return FlowMatchResult.builder()
+        .id(flow.getId())
+        .version(flow.effectiveVersion())
+        .priority(flow.effectivePriority())
+        .method(method == null ? null : method.toUpperCase(Locale.ROOT))
+        .path(path)
+        .expression(expression)
+        .matcher(matcher)
+        .build();
+  }
+
+  /**
+   * A candidate of the matched route; {@code sole} is set when the route holds no other flow,
+   * before any {@code MATCHER} filtering.
+   */
+  public record RouteMatch(FlowMatchResult match, Map<String, String> pathVariables,
+                           boolean sole) {
+  }
+
+  private record RouteEntry(FlowMatchResult match, String[] variableNames) {
+
+    static RouteEntry of(FlowMatchResult match, String[] segments) {
+      String[] names = new String[segments.length];
+      for (int i = 0; i < segments.length; i++) {
+        if (segments[i].startsWith(":")) {
+          names[i] = segments[i].substring(1);
+        }
+      }
+      return new RouteEntry(match, names);
+    }
+
+    Map<String, String> pathVariables(String[] segments) {
+      Map<String, String> variables = new HashMap<>();
+      for (int i = 0; i < variableNames.length; i++) {
+        if (variableNames[i] != null) {
+          variables.put(variableNames[i], segments[i]);
+        }
+      }
+      return variables;
+    }
+
+  }
+
+  /**
+   * Routes of one group, one independently built trie per method.
+   */
+  private record GroupRoutes(Map<String, MethodRoutes> methods) {
+
+    static final GroupRoutes EMPTY = new GroupRoutes(Map.of());
+
+    GroupRoutes with(FlowMatchResult match, Function<FlowMatchResult, RequestMatcher> matchers) {
+      Map<String, MethodRoutes> copy = new HashMap<>(methods);
+      methods.forEach((method, routes) -> {
+        if (!method.equals(match.getMethod()) && routes.flows().containsKey(match.getId())) {
+          replace(copy, method, routes.without(match.getId(), matchers));
+        }
+      });
+
+      Map<UUID, FlowMatchResult> flows =
+          new HashMap<>(copy.getOrDefault(match.getMethod(), MethodRoutes.EMPTY).flows());
+      flows.put(match.getId(), match);
+      copy.put(match.getMethod(), MethodRoutes.build(flows, matchers));
+      return new GroupRoutes(copy);
+    }
+
+    GroupRoutes without(UUID flowId, Function<FlowMatchResult, RequestMatcher> matchers) {
+      Map<String, MethodRoutes> copy = new HashMap<>(methods);
+      methods.forEach((method, routes) -> {
+        if (routes.flows().containsKey(flowId)) {
+          replace(copy, method, routes.without(flowId, matchers));
+        }
+      });
+      return copy.isEmpty() ? null : new GroupRoutes(copy);
+    }
+
+    static GroupRoutes build(Map<UUID, FlowMatchResult> flows,
+                             Function<FlowMatchResult, RequestMatcher> matchers) {
+      Map<String, Map<UUID, FlowMatchResult>> byMethod = new HashMap<>();
+      flows.forEach((id, match) ->
+          byMethod.computeIfAbsent(match.getMethod(), m -> new HashMap<>()).put(id, match));
+
+      Map<String, MethodRoutes> methods = new HashMap<>();
+      byMethod.forEach((method, routes) ->
+          methods.put(method, MethodRoutes.build(routes, matchers)));
+      return new GroupRoutes(methods);
+    }
+
+    private static void replace(Map<String, MethodRoutes> methods, String method,
+                                MethodRoutes routes) {
+      if (routes == null) {
+        methods.remove(method);
+      } else {
+        methods.put(method, routes);
+      }
+    }
+
+  }
+
+  private record MethodRoutes(Map<UUID, FlowMatchResult> flows, RouteNode root) {
+
+    static final MethodRoutes EMPTY = new MethodRoutes(Map.of(), new RouteNode());
+
+    MethodRoutes without(UUID flowId, Function<FlowMatchResult, RequestMatcher> matchers) {
+      Map<UUID, FlowMatchResult> copy = new HashMap<>(flows);
+      copy.remove(flowId);
+      return copy.isEmpty() ? null : build(copy, matchers);
+    }
+
+    static MethodRoutes build(Map<UUID, FlowMatchResult> flows,
+                              Function<FlowMatchResult, RequestMatcher> matchers) {
+      List<FlowMatchResult> ordered = new ArrayList<>(flows.values());
+      ordered.sort(FlowMatchResult.PRIORITY_ORDER);
+
+      RouteNode root = new RouteNode();
+      for (FlowMatchResult match : ordered) {
+        String[] segments = match.getPath().split(DELIMITER);
+        root.insert(segments, 0).entries.add(RouteEntry.of(match, segments));
+      }
+      root.seal(matchers);
+      return new MethodRoutes(flows, root);
+    }
+
+  }
+
+  /**
+   * Trie node. Nodes are only mutated while their {@link GroupRoutes} is being built and are
+   * read-only once published.
+   */
+  private static final class RouteNode {
+
+    final Map<String, RouteNode> children = new HashMap<>();
+    final List<RouteEntry> entries = new ArrayList<>(1);
+    RouteNode variable;
+    MatcherIndex<RouteEntry> index;
+
+    RouteNode insert(String[] segments, int index) {
+      if (index == segments.length) {
+        return this;
+      }
+
+      String segment = segments[index];
+      RouteNode next;
+      if (segment.startsWith(":")) {
+        if (variable == null) {
+          variable = new RouteNode();
+        }
+        next = variable;
+      } else {
+        next = children.computeIfAbsent(segment, s -> new RouteNode());
+      }
+      return next.insert(segments, index + 1);
+    }
+
+    void seal(Function<FlowMatchResult, RequestMatcher> matchers) {
+      if (!entries.isEmpty()) {
+        index = MatcherIndex.build(entries, entry -> matchers.apply(entry.match()));
+      }
+      children.values().forEach(child -> child.seal(matchers));
+      if (variable != null) {
+        variable.seal(matchers);
+      }
+    }
+
+    RouteNode find(String[] segments, int index) {
+      if (index == segments.length) {
+        return entries.isEmpty() ? null : this;
+      }
+
+      RouteNode child = children.get(segments[index]);
+      if (child != null) {
+        RouteNode leaf = child.find(segments, index + 1);
+        if (leaf != null) {
+          return leaf;
+        }
+      }
+      return variable == null ? null : variable.find(segments, index + 1);
+    }
+
+  }
+
+}
@@ -70,6 +70,22 @@ public class RuntimeKafkaListenerManager {
     log.info("Kafka listener STOPPED | {}", key);
   }
 
+  public void pause(String brokerUrl, String topic, String groupId) {
+    var container = containers.get(key(brokerUrl, topic, groupId));
+    if (container != null && !container.isPauseRequested()) {
+      container.pause();
+      log.info("Kafka listener PAUSED | {}", key(brokerUrl, topic, groupId));
+    }
+  }
+
+  public void resume(String brokerUrl, String topic, String groupId) {
+    var container = containers.get(key(brokerUrl, topic, groupId));
+    if (container != null && container.isPauseRequested()) {
+      container.resume();
+      log.info("Kafka listener RESUMED | {}", key(brokerUrl, topic, groupId));
+    }
+  }
+
   private Map<String, Object> listenerProps(String brokerUrl, String groupId) {
     Map<String, Object> props = new HashMap<>();
     props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, brokerUrl);
@@ -98,6 +114,7 @@ public class RuntimeKafkaListenerManager {
               .topic(parts[1])
               .groupId(parts[2])
               .running(container.isRunning())
+              .paused(container.isPauseRequested())
               .build();
         })
         .toList();
@@ -0,0 +1,47 @@
+package jetmock.service;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Fully pre-rendered response of a flow whose response body has no placeholders. Status,
+ * headers and the UTF-8 body are fixed when the flow is saved; a request only writes them.
+ */
+final class StaticResponse {
+
+  private final int status;
+  private final String[] headerNames;
+  private final String[] headerValues;
+  private final byte[] body;
+
+  private StaticResponse(int status, String[] headerNames, String[] headerValues, byte[] body) {
+    this.status = status;
+    this.headerNames = headerNames;
+    this.headerValues = headerValues;
+    this.body = body;
+  }
+
+  static StaticResponse of(int status, HttpHeaders headers, byte[] body) {
+    List<String> names = new ArrayList<>();
+    List<String> values = new ArrayList<>();
+    headers.forEach((name, headerValues) -> headerValues.forEach(value -> {
+      names.add(name);
+      values.add(value);
+    }));
+    return new StaticResponse(status, names.toArray(String[]::new),
+        values.toArray(String[]::new), body);
+  }
+
+  void write(HttpServletResponse response) throws IOException {
+    response.setStatus(status);
+    for (int i = 0; i < headerNames.length; i++) {
+      response.addHeader(headerNames[i], headerValues[i]);
+    }
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+}
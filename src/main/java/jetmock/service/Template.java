@@ -0,0 +1,116 @@
+package jetmock.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Body template compiled once by {@link PlaceholderService#compile}: literal text interleaved with
+ * pre-parsed placeholders. Repeated placeholders share a slot and are resolved once per render,
+ * except {@code random.uuid} which yields a fresh value for every occurrence.
+ */
+public final class Template {
+
+  enum Kind {
+    RANDOM_UUID, GLOBAL, DSL, EMPTY
+  }
+
+  record Placeholder(Kind kind, String source, String key, int order, HotExpression expression) {
+  }
+
+  /**
+   * Literal text, also pre-encoded as UTF-8, when {@code slot} is negative, otherwise a
+   * reference to a placeholder.
+   */
+  record Segment(String literal, byte[] bytes, int slot) {
+
+    static Segment literal(String text) {
+      return new Segment(text, text.getBytes(StandardCharsets.UTF_8), -1);
+    }
+
+    static Segment placeholder(int slot) {
+      return new Segment(null, null, slot);
+    }
+
+  }
+
+  private final String source;
+  private final byte[] sourceBytes;
+  private final Segment[] segments;
+  private final Placeholder[] placeholders;
+  private final boolean deterministic;
+  private final UUID groupId;
+  private final UUID flowId;
+  private volatile int sizeHint;
+
+  Template(String source, List<Segment> segments, List<Placeholder> placeholders, UUID groupId,
+           UUID flowId) {
+    this.source = source;
+    this.groupId = groupId;
+    this.flowId = flowId;
+    this.sourceBytes = placeholders.isEmpty() ? source.getBytes(StandardCharsets.UTF_8) : null;
+    this.segments = segments.toArray(Segment[]::new);
+    this.placeholders = placeholders.toArray(Placeholder[]::new);
+    this.deterministic = placeholders.stream()
+        .noneMatch(p -> p.kind() == Kind.RANDOM_UUID || p.kind() == Kind.GLOBAL);
+    this.sizeHint = source.length();
+  }
+
+  public String getSource() {
+    return source;
+  }
+
+  public boolean isStatic() {
+    return placeholders.length == 0;
+  }
+
+  /**
+   * Whether the output depends only on the trigger context: no {@code random.uuid} and no
+   * {@code global.*} placeholders.
+   */
+  public boolean isDeterministic() {
+    return deterministic;
+  }
+
+  /**
+   * UTF-8 encoded source of a static template.
+   */
+  byte[] sourceBytes() {
+    return sourceBytes;
+  }
+
+  /**
+   * Group and flow whose scoped variables {@code global.*} placeholders resolve first; either
+   * may be {@code null}.
+   */
+  UUID groupId() {
+    return groupId;
+  }
+
+  UUID flowId() {
+    return flowId;
+  }
+
+  Segment[] segments() {
+    return segments;
+  }
+
+  Placeholder[] placeholders() {
+    return placeholders;
+  }
+
+  int sizeHint() {
+    return sizeHint;
+  }
+
+  /**
+   * Records the length (chars or bytes) of a rendered body so the next render allocates a
+   * buffer that fits.
+   */
+  void observe(int renderedLength) {
+    if (renderedLength > sizeHint) {
+      sizeHint = renderedLength;
+    }
+  }
+
+}
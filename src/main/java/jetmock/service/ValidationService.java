@@ -22,6 +22,8 @@ import org.springframework.stereotype.Service;
 @FieldDefaults(level = PRIVATE, makeFinal = true)
 public class ValidationService {
 
+  ConditionEvaluator conditionEvaluator;
+
   public void validate(CreateMockRequest request) {
     List<ValidationError> errors = new ArrayList<>();
 
@@ -63,6 +65,8 @@ public class ValidationService {
         }
       }
 
+      validateCondition(schema, step, errors);
+
       for (String key : step.keySet()) {
         if (!key.equals("elementType")
             && !key.equals("elementName")
@@ -79,6 +83,25 @@ public class ValidationService {
     }
   }
 
+  private void validateCondition(ElementSchema schema, Map<String, Object> step,
+                                 List<ValidationError> errors) {
+    String field = switch (schema) {
+      case CONDITION -> "expression";
+      case MATCHER -> "predicates";
+      default -> null;
+    };
+    if (field == null || !(step.get(field) instanceof String source) || source.isBlank()) {
+      return;
+    }
+
+    String error = schema == ElementSchema.CONDITION
+        ? conditionEvaluator.validate(source)
+        : conditionEvaluator.validateMatcher(source);
+    if (error != null) {
+      errors.add(new ValidationError(schema.name() + "." + field, error));
+    }
+  }
+
   private String validateType(Object value, DataType expectedType) {
     return switch (expectedType) {
       case STRING -> !(value instanceof String)
@@ -90,6 +113,9 @@ public class ValidationService {
       case TEXT -> !(value instanceof String)
           ? "data type must be TEXT" : null;
 
+      case BOOLEAN -> !(value instanceof Boolean)
+          ? "data type must be BOOLEAN" : null;
+
       default -> "Unsupported data type: " + expectedType;
     };
   }
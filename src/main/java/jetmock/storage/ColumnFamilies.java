@@ -0,0 +1,22 @@
+package jetmock.storage;
+
+import java.util.EnumMap;
+import java.util.Map;
+import org.rocksdb.ColumnFamilyHandle;
+
+/**
+ * Handles of the column families opened by {@code RocksDbConfig}.
+ */
+public final class ColumnFamilies {
+
+  private final Map<StoreFamily, ColumnFamilyHandle> handles;
+
+  public ColumnFamilies(Map<StoreFamily, ColumnFamilyHandle> handles) {
+    this.handles = new EnumMap<>(handles);
+  }
+
+  public ColumnFamilyHandle get(StoreFamily family) {
+    return handles.get(family);
+  }
+
+}
@@ -0,0 +1,203 @@
+package jetmock.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import jetmock.domain.ElementAttribute;
+import jetmock.domain.FlowElement;
+import jetmock.domain.FlowMatchResult;
+import jetmock.domain.MockFlow;
+
+/**
+ * Hand-written field-by-field layout of {@link MockFlow} and {@link FlowMatchResult}, the
+ * entities read on every cache miss. Fields are written in declaration order behind a presence
+ * byte when nullable; attribute values, which may be any JSON value, are embedded in the
+ * generic format of the given mapper. Any change to the layout needs a new header byte in
+ * {@link ValueCodec}.
+ */
+final class EntityBinaryFormat {
+
+  private final ObjectMapper valueMapper;
+
+  EntityBinaryFormat(ObjectMapper valueMapper) {
+    this.valueMapper = valueMapper;
+  }
+
+  void writeFlow(MockFlow flow, DataOutputStream out) throws IOException {
+    writeUuid(flow.getId(), out);
+    writeString(flow.getName(), out);
+    writeUuid(flow.getGroupId(), out);
+    writeInteger(flow.getPriority(), out);
+    writeInteger(flow.getVersion(), out);
+
+    List<FlowElement> elements = flow.getFlowElements();
+    out.writeInt(elements == null ? -1 : elements.size());
+    if (elements != null) {
+      for (FlowElement element : elements) {
+        writeElement(element, out);
+      }
+    }
+  }
+
+  MockFlow readFlow(DataInputStream in) throws IOException {
+    MockFlow flow = MockFlow.builder()
+        .id(readUuid(in))
+        .name(readString(in))
+        .groupId(readUuid(in))
+        .priority(readInteger(in))
+        .version(readInteger(in))
+        .build();
+
+    int size = in.readInt();
+    if (size >= 0) {
+      List<FlowElement> elements = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        elements.add(readElement(in));
+      }
+      flow.setFlowElements(elements);
+    }
+    return flow;
+  }
+
+  void writeMatch(FlowMatchResult match, DataOutputStream out) throws IOException {
+    writeUuid(match.getId(), out);
+    out.writeInt(match.getVersion());
+    writeString(match.getExpression(), out);
+    writeString(match.getMatcher(), out);
+    out.writeInt(match.getPriority());
+    writeString(match.getMethod(), out);
+    writeString(match.getPath(), out);
+    writeString(match.getBrokerId(), out);
+    writeString(match.getTopic(), out);
+  }
+
+  FlowMatchResult readMatch(DataInputStream in) throws IOException {
+    return FlowMatchResult.builder()
+        .id(readUuid(in))
+        .version(in.readInt())
+        .expression(readString(in))
+        .matcher(readString(in))
+        .priority(in.readInt())
+        .method(readString(in))
+        .path(readString(in))
+        .brokerId(readString(in))
+        .topic(readString(in))
+        .build();
+  }
+
+  private void writeElement(FlowElement element, DataOutputStream out) throws IOException {
+    writeUuid(element.getId(), out);
+    writeString(element.getName(), out);
+    writeInteger(element.getOrderNumber(), out);
+
+    List<ElementAttribute> attributes = element.getAttributes();
+    out.writeInt(attributes == null ? -1 : attributes.size());
+    if (attributes != null) {
+      for (ElementAttribute attribute : attributes) {
+        writeString(attribute.getName(), out);
+        writeString(attribute.getDataType(), out);
+        writeValue(attribute.getValue(), out);
+      }
+    }
+  }
+
+  private FlowElement readElement(DataInputStream in) throws IOException {
+    FlowElement element = FlowElement.builder()
+        .id(readUuid(in))
+        .name(readString(in))
+        .orderNumber(readInteger(in))
+        .build();
+
+    int size = in.readInt();
+    if (size >= 0) {
+      List<ElementAttribute> attributes = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        attributes.add(new ElementAttribute(readString(in), readString(in), readValue(in)));
+      }
+      element.setAttributes(attributes);
+    }
+    return element;
+  }
+
+  private void writeValue(Object value, DataOutputStream out) throws IOException {
+    if (value instanceof String text) {
+      out.writeByte(2);
+      writeText(text, out);
+    } else if (value != null) {
+      byte[] bytes = valueMapper.writeValueAsBytes(value);
+      out.writeByte(1);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    } else {
+      out.writeByte(0);
+    }
+  }
+
+  private Object readValue(DataInputStream in) throws IOException {
+    return switch (in.readByte()) {
+      case 0 -> null;
+      case 2 -> readText(in);
+      default -> {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        yield valueMapper.readValue(bytes, Object.class);
+      }
+    };
+  }
+
+  private static void writeUuid(UUID id, DataOutputStream out) throws IOException {
+    out.writeBoolean(id != null);
+    if (id != null) {
+      out.writeLong(id.getMostSignificantBits());
+      out.writeLong(id.getLeastSignificantBits());
+    }
+  }
+
+  private static UUID readUuid(DataInputStream in) throws IOException {
+    return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+  }
+
+  private static void writeInteger(Integer value, DataOutputStream out) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeInt(value);
+    }
+  }
+
+  private static Integer readInteger(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readInt() : null;
+  }
+
+  private static void writeString(String value, DataOutputStream out) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      writeText(value, out);
+    }
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? readText(in) : null;
+  }
+
+  /**
+   * Length-prefixed UTF-8; unlike {@link DataOutputStream#writeUTF} not limited to 64 KB,
+   * which response bodies easily exceed.
+   */
+  private static void writeText(String value, DataOutputStream out) throws IOException {
+    byte[] bytes = Keys.utf8(value);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readText(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+}
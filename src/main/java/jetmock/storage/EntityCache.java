@@ -0,0 +1,57 @@
+package jetmock.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Decoded entities by id, bounded by the total size of their encoded values with W-TinyLFU
+ * eviction, so the hot working set is served from the heap and cold entities stay on disk.
+ * Storage classes invalidate an entry after each commit, so the next read loads the committed
+ * value. The cached instance is decoded from stored bytes, never a caller's object, and is
+ * shared by all readers, so it must not be modified. Hits, misses and evictions are published
+ * as {@code cache.*{cache="<name>"}}.
+ */
+public class EntityCache<T> {
+
+  private final Cache<UUID, Entry<T>> cache;
+  private final Function<byte[], T> decoder;
+
+  public EntityCache(String name, long maxBytes, Function<byte[], T> decoder,
+                     MeterRegistry meterRegistry) {
+    this.decoder = decoder;
+    this.cache = Caffeine.newBuilder()
+        .maximumWeight(maxBytes)
+        .weigher((UUID id, Entry<T> entry) -> entry.weight())
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+  }
+
+  /**
+   * Returns the cached entity, loading its encoded value with {@code read} on a miss; returns
+   * {@code null} when {@code read} finds nothing, which is not cached.
+   */
+  public T get(UUID id, Function<UUID, byte[]> read) {
+    Entry<T> entry = cache.get(id, key -> {
+      byte[] bytes = read.apply(key);
+      return bytes == null ? null : entry(bytes);
+    });
+    return entry == null ? null : entry.value();
+  }
+
+  public void invalidate(UUID id) {
+    cache.invalidate(id);
+  }
+
+  private Entry<T> entry(byte[] bytes) {
+    return new Entry<>(decoder.apply(bytes), bytes.length);
+  }
+
+  private record Entry<T>(T value, int weight) {
+  }
+
+}
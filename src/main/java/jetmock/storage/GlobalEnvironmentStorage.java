@@ -1,55 +1,148 @@
 package jetmock.storage;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.nio.charset.StandardCharsets;
+import static jetmock.storage.StoreFamily.GLOBALS;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import jakarta.annotation.PostConstruct;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
 import jetmock.domain.GlobalVariable;
+import jetmock.domain.VariableScope;
+import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteOptions;
 import org.springframework.stereotype.Component;
 
+/**
+ * Variables stored one per key: the scope ordinal, the group or flow id for scoped variables,
+ * then the lower-case name. All of them are mirrored in a {@link VariableSnapshot} that is
+ * replaced on every write, so placeholder resolution never touches RocksDB or takes a lock.
+ * Writes of the same name are ordered by a lock stripe; writes of different names only race on
+ * the compare-and-set that publishes the snapshot. Group and flow variables share the stripe of
+ * their scope, which orders them against {@link #deleteScope}: a write that follows the deletion
+ * finds its group or flow gone and is dropped.
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class GlobalEnvironmentStorage {
 
   private final RocksDB db;
-  private final ObjectMapper mapper;
-
-  private static final String ENV_KEY = "global"; // 🔥 TƏK KEY
-
-  @SneakyThrows
-  public List<GlobalVariable> getAll() {
-    byte[] value = db.get(bytes(ENV_KEY));
-    if (value == null) {
-      return new ArrayList<>();
+  private final ColumnFamilies families;
+  private final ValueCodec codec;
+  private final LegacyKeyspace legacyKeyspace;
+  private final WriteOptions writeOptions;
+  private final StoreTransactions transactions;
+  private final GroupStorage groupStorage;
+  private final MockFlowStorage mockFlowStorage;
+
+  // 🔥 keeps the stored value and the published snapshot of one key or scope in the same order
+  private final Lock[] stripes = newStripes(64);
+  private final AtomicReference<VariableSnapshot> snapshot =
+      new AtomicReference<>(VariableSnapshot.EMPTY);
+
+  private static final String ENV_KEY = "global"; // list of every variable, before per-key
+  private static final JavaType VARIABLES = TypeFactory.defaultInstance()
+      .constructCollectionType(List.class, GlobalVariable.class);
+
+  @PostConstruct
+  public void load() {
+    legacyKeyspace.take(ENV_KEY, new TypeReference<List<GlobalVariable>>() {
+    }).ifPresent(this::saveAll);
+    migrateVariableList();
+
+    VariableSnapshot loaded = VariableSnapshot.EMPTY;
+    try (RocksIterator it = db.newIterator(families.get(GLOBALS))) {
+      for (it.seekToFirst(); it.isValid(); it.next()) {
+        loaded = loaded.with(codec.decode(it.value(), GlobalVariable.class));
+      }
     }
+    snapshot.set(loaded);
+  }
 
-    return mapper.readValue(
-        value,
-        mapper.getTypeFactory()
-            .constructCollectionType(List.class, GlobalVariable.class)
-    );
+  /**
+   * Global-scope variables.
+   */
+  public List<GlobalVariable> getAll() {
+    return snapshot.get().global();
   }
 
-  @SneakyThrows
   public void saveAll(List<GlobalVariable> variables) {
-    db.put(bytes(ENV_KEY), mapper.writeValueAsBytes(variables));
+    variables.forEach(this::upsert);
   }
 
   public void upsert(GlobalVariable variable) {
     validate(variable);
 
-    List<GlobalVariable> vars = getAll();
+    byte[] key = variableKey(variable);
+    VariableScope scope = variable.effectiveScope();
+    Lock stripe = scope == VariableScope.GLOBAL
+        ? stripe(key) : stripe(scopePrefix(scope, variable.getScopeId()));
+    stripe.lock();
+    try {
+      if (!scopeExists(scope, variable.getScopeId())) {
+        log.info("Variable of a deleted scope dropped | scope={} | id={} | key={}",
+            scope, variable.getScopeId(), variable.getKey());
+        return;
+      }
+      db.put(families.get(GLOBALS), writeOptions, key, codec.encode(variable));
+      snapshot.updateAndGet(current -> current.with(variable));
+    } catch (Exception e) {
+      throw new IllegalStateException("Failed to save variable key=" + variable.getKey(), e);
+    } finally {
+      stripe.unlock();
+    }
+  }
+
+  /**
+   * Removes every variable of a group or flow, once the group or flow itself is deleted.
+   */
+  public void deleteScope(VariableScope scope, UUID scopeId) {
+    if (scope == VariableScope.GLOBAL || scopeId == null) {
+      throw new IllegalArgumentException("Only group or flow variables can be deleted by scope");
+    }
 
+    byte[] prefix = scopePrefix(scope, scopeId);
+    Lock stripe = stripe(prefix);
+    stripe.lock();
+    try {
+      List<byte[]> keys = scopeKeys(prefix);
+      transactions.execute(tx -> {
+        for (byte[] key : keys) {
+          tx.delete(GLOBALS, key);
+        }
+        return null;
+      });
+      snapshot.updateAndGet(current -> current.without(scope, scopeId));
+    } catch (Exception e) {
+      throw new IllegalStateException("Failed to delete variables of " + scope + " " + scopeId, e);
+    } finally {
+      stripe.unlock();
+    }
+  }
 
-    vars.removeIf(v -> v.getKey().equals(variable.getKey()));
-    variable.setKey(variable.getKey());
-    vars.add(variable);
+  public Optional<Object> getValueByKey(String key) {
+    return resolve(key, null, null);
+  }
 
-    saveAll(vars);
+  /**
+   * Case-insensitive lookup in the flow, group and global scopes, in that order.
+   */
+  public Optional<Object> resolve(String key, UUID groupId, UUID flowId) {
+    GlobalVariable variable = snapshot.get().resolve(key, groupId, flowId);
+    return variable == null ? Optional.empty() : Optional.ofNullable(variable.getValue());
   }
 
   private void validate(GlobalVariable variable) {
@@ -60,17 +153,70 @@ public class GlobalEnvironmentStorage {
     if (variable.getKey() == null || variable.getKey().isBlank()) {
       throw new IllegalArgumentException("GlobalVariable.key must not be blank");
     }
+
+    if (variable.effectiveScope() != VariableScope.GLOBAL && variable.getScopeId() == null) {
+      throw new IllegalArgumentException("GlobalVariable.scopeId is required for its scope");
+    }
   }
 
-  private byte[] bytes(String k) {
-    return k.getBytes(StandardCharsets.UTF_8);
+  private Lock stripe(byte[] key) {
+    return stripes[Math.floorMod(Arrays.hashCode(key), stripes.length)];
   }
 
-  public Optional<Object> getValueByKey(String key) {
-    List<GlobalVariable> vars = getAll();
-    return vars.stream()
-        .filter(v -> v.getKey().equalsIgnoreCase(key))
-        .map(GlobalVariable::getValue)
-        .findFirst();
+  private boolean scopeExists(VariableScope scope, UUID scopeId) {
+    return switch (scope) {
+      case GLOBAL -> true;
+      case GROUP -> groupStorage.findById(scopeId).isPresent();
+      case FLOW -> mockFlowStorage.findById(scopeId).isPresent();
+    };
+  }
+
+  private List<byte[]> scopeKeys(byte[] prefix) {
+    List<byte[]> keys = new ArrayList<>();
+    try (ReadOptions options = new ReadOptions().setTotalOrderSeek(true);
+         RocksIterator it = db.newIterator(families.get(GLOBALS), options)) {
+      for (it.seek(prefix); it.isValid() && Keys.startsWith(it.key(), prefix); it.next()) {
+        keys.add(it.key());
+      }
+    }
+    return keys;
   }
+
+  private static byte[] variableKey(GlobalVariable variable) {
+    byte[] prefix = scopePrefix(variable.effectiveScope(), variable.getScopeId());
+    byte[] name = Keys.utf8(VariableSnapshot.normalize(variable.getKey()));
+    return ByteBuffer.allocate(prefix.length + name.length).put(prefix).put(name).array();
+  }
+
+  private static byte[] scopePrefix(VariableScope scope, UUID scopeId) {
+    if (scope == VariableScope.GLOBAL) {
+      return new byte[] {(byte) scope.ordinal()};
+    }
+    return ByteBuffer.allocate(1 + Keys.UUID_LENGTH)
+        .put((byte) scope.ordinal())
+        .put(Keys.uuid(scopeId))
+        .array();
+  }
+
+  private static Lock[] newStripes(int count) {
+    Lock[] locks = new Lock[count];
+    Arrays.setAll(locks, i -> new ReentrantLock());
+    return locks;
+  }
+
+  /**
+   * Splits the single list key used before variables were stored per key.
+   */
+  private void migrateVariableList() {
+    try {
+      byte[] value = db.get(families.get(GLOBALS), Keys.utf8(ENV_KEY));
+      if (value != null) {
+        saveAll(codec.decode(value, VARIABLES));
+        db.delete(families.get(GLOBALS), writeOptions, Keys.utf8(ENV_KEY));
+      }
+    } catch (Exception e) {
+      throw new IllegalStateException("Failed to migrate the global variable list", e);
+    }
+  }
+
 }
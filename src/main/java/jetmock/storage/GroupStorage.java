@@ -1,17 +1,18 @@
 package jetmock.storage;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.nio.charset.StandardCharsets;
+import static jetmock.storage.StoreFamily.GROUPS;
+import static jetmock.storage.StoreFamily.GROUP_NAMES;
+
+import jakarta.annotation.PostConstruct;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import jetmock.domain.MockGroup;
 import org.rocksdb.RocksDB;
+import org.rocksdb.RocksIterator;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -19,51 +20,69 @@ import org.springframework.stereotype.Component;
 public class GroupStorage {
 
   private final RocksDB db;
-  private final ObjectMapper mapper;
-
-  private static final String GROUP_PREFIX = "group";
-  private static final String GROUP_IDS_KEY = "group:ids";
-  private static final String GROUP_NAME_PREFIX = "group:name";
-  private static final String GROUP_FLOWS = "group:%s:flows";
-
-  private static final TypeReference<Set<UUID>> UUID_SET = new TypeReference<>() {
-  };
+  private final ColumnFamilies families;
+  private final ValueCodec codec;
+  private final LegacyKeyspace legacyKeyspace;
+  private final StoreTransactions transactions;
+
+  @PostConstruct
+  public void migrateLegacyKeys() {
+    legacyKeyspace.migrate("group:", MockGroup.class, this::save);
+  }
 
   public MockGroup save(MockGroup group) {
     if (group.getId() == null) {
       group.setId(UUID.randomUUID());
     }
 
-    put(groupKey(group.getId()), group);
-    put(groupNameKey(group.getName()), group.getId());
-    updateIds(ids -> ids.add(group.getId()));
-
+    try {
+      transactions.execute(tx -> {
+        Optional<MockGroup> previous = read(tx, group.getId());
+        if (previous.isPresent() && !previous.get().getName().equalsIgnoreCase(group.getName())) {
+          tx.delete(GROUP_NAMES, groupNameKey(previous.get().getName()));
+        }
+        tx.put(GROUPS, Keys.uuid(group.getId()), codec.encode(group));
+        tx.put(GROUP_NAMES, groupNameKey(group.getName()), codec.encode(group.getId()));
+        return null;
+      });
+    } catch (Exception e) {
+      throw new IllegalStateException("Write failed: group " + group.getId(), e);
+    }
     return group;
   }
 
   public void delete(UUID id) {
-    findById(id).ifPresent(group -> {
-      deleteKey(groupKey(id));
-      deleteKey(groupNameKey(group.getName()));
-      updateIds(ids -> ids.remove(id));
-    });
+    try {
+      transactions.execute(tx -> {
+        Optional<MockGroup> group = read(tx, id);
+        if (group.isPresent()) {
+          tx.delete(GROUPS, Keys.uuid(id));
+          tx.delete(GROUP_NAMES, groupNameKey(group.get().getName()));
+        }
+        return null;
+      });
+    } catch (Exception e) {
+      throw new IllegalStateException("Delete failed: group " + id, e);
+    }
   }
 
   public Optional<MockGroup> findById(UUID id) {
-    return get(groupKey(id), MockGroup.class);
+    return get(GROUPS, Keys.uuid(id), MockGroup.class);
   }
 
   public Optional<MockGroup> findByName(String name) {
-    return get(groupNameKey(name), UUID.class)
+    return get(GROUP_NAMES, groupNameKey(name), UUID.class)
         .flatMap(this::findById);
   }
 
   public List<MockGroup> findAll() {
-    Set<UUID> ids = readIds();
-    List<MockGroup> result = new ArrayList<>(ids.size());
-
-    for (UUID id : ids) {
-      findById(id).ifPresent(result::add);
+    List<MockGroup> result = new ArrayList<>();
+    try (RocksIterator it = db.newIterator(families.get(GROUPS))) {
+      for (it.seekToFirst(); it.isValid(); it.next()) {
+        result.add(codec.decode(it.value(), MockGroup.class));
+      }
+    } catch (Exception e) {
+      throw new IllegalStateException("Read failed: " + GROUPS.id(), e);
     }
     return result;
   }
@@ -72,67 +91,26 @@ public class GroupStorage {
     return findAll();
   }
 
-  private Set<UUID> readIds() {
-    return get(GROUP_IDS_KEY, UUID_SET)
-        .orElseGet(HashSet::new);
-  }
-
-  private void updateIds(java.util.function.Consumer<Set<UUID>> updater) {
-    Set<UUID> ids = readIds();
-    updater.accept(ids);
-    put(GROUP_IDS_KEY, ids);
-  }
-
-  private <T> Optional<T> get(String key, Class<T> type) {
-    try {
-      byte[] v = db.get(bytes(key));
-      if (v == null) {
-        return Optional.empty();
-      }
-      return Optional.of(mapper.readValue(v, type));
-    } catch (Exception e) {
-      throw new IllegalStateException("Read failed: " + key, e);
-    }
+  private Optional<MockGroup> read(StoreTransaction tx, UUID id) throws Exception {
+    byte[] v = tx.get(GROUPS, Keys.uuid(id));
+    return v == null ? Optional.empty() : Optional.of(codec.decode(v, MockGroup.class));
   }
 
-  private <T> Optional<T> get(String key, TypeReference<T> type) {
+  private <T> Optional<T> get(StoreFamily family, byte[] key, Class<T> type) {
     try {
-      byte[] v = db.get(bytes(key));
+      byte[] v = db.get(families.get(family), key);
       if (v == null) {
         return Optional.empty();
       }
-      return Optional.of(mapper.readValue(v, type));
-    } catch (Exception e) {
-      throw new IllegalStateException("Read failed: " + key, e);
-    }
-  }
-
-  private void put(String key, Object value) {
-    try {
-      db.put(bytes(key), mapper.writeValueAsBytes(value));
+      return Optional.of(codec.decode(v, type));
     } catch (Exception e) {
-      throw new IllegalStateException("Write failed: " + key, e);
+      throw new IllegalStateException(
+          "Read failed: " + family.id() + "/" + Keys.describe(key), e);
     }
   }
 
-  private void deleteKey(String key) {
-    try {
-      db.delete(bytes(key));
-    } catch (Exception e) {
-      throw new IllegalStateException("Delete failed: " + key, e);
-    }
-  }
-
-  private String groupKey(UUID id) {
-    return GROUP_PREFIX + ":" + id;
-  }
-
-  private String groupNameKey(String name) {
-    return GROUP_NAME_PREFIX + ":" + name.toLowerCase();
-  }
-
-  private byte[] bytes(String key) {
-    return key.getBytes(StandardCharsets.UTF_8);
+  private byte[] groupNameKey(String name) {
+    return Keys.utf8(name.toLowerCase(Locale.ROOT));
   }
 
 }
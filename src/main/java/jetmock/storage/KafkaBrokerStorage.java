@@ -1,17 +1,17 @@
 package jetmock.storage;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.nio.charset.StandardCharsets;
+import static jetmock.storage.StoreFamily.BROKERS;
+
+import jakarta.annotation.PostConstruct;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import jetmock.domain.KafkaBroker;
 import org.rocksdb.RocksDB;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteOptions;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -19,101 +19,65 @@ import org.springframework.stereotype.Component;
 public class KafkaBrokerStorage {
 
   private final RocksDB db;
-  private final ObjectMapper mapper;
-
-  private static final String BROKER_PREFIX = "kafka-broker";
-  private static final String BROKER_IDS_KEY = "kafka-broker:ids";
-  private static final TypeReference<Set<UUID>> UUID_SET_TYPE =
-      new TypeReference<>() {
-      };
+  private final ColumnFamilies families;
+  private final ValueCodec codec;
+  private final LegacyKeyspace legacyKeyspace;
+  private final WriteOptions writeOptions;
+  private final EntityCache<KafkaBroker> brokerCache;
+
+  @PostConstruct
+  public void migrateLegacyKeys() {
+    legacyKeyspace.migrate("kafka-broker:", KafkaBroker.class, this::save);
+  }
 
   public KafkaBroker save(KafkaBroker broker) {
     if (broker.getId() == null) {
       broker.setId(UUID.randomUUID());
     }
 
-    put(brokerKey(broker.getId()), broker);
-    updateIds(ids -> ids.add(broker.getId()));
-
+    try {
+      db.put(families.get(BROKERS), writeOptions, Keys.uuid(broker.getId()), codec.encode(broker));
+      brokerCache.invalidate(broker.getId());
+    } catch (Exception e) {
+      throw new IllegalStateException("Failed to write broker id=" + broker.getId(), e);
+    }
     return broker;
   }
 
+  /**
+   * Served from {@link EntityCache}; the returned broker is shared and must not be modified.
+   */
   public Optional<KafkaBroker> findById(UUID id) {
-    return get(brokerKey(id), KafkaBroker.class);
+    return Optional.ofNullable(brokerCache.get(id, this::readEncoded));
   }
 
   public List<KafkaBroker> findAll() {
-    Set<UUID> ids = readIds();
-    List<KafkaBroker> result = new ArrayList<>(ids.size());
-
-    for (UUID id : ids) {
-      findById(id).ifPresent(result::add);
-    }
-    return result;
-  }
-
-  public void delete(UUID id) {
-    deleteKey(brokerKey(id));
-    updateIds(ids -> ids.remove(id));
-  }
-
-  private Set<UUID> readIds() {
-    return get(BROKER_IDS_KEY, UUID_SET_TYPE)
-        .orElseGet(HashSet::new);
-  }
-
-  private void updateIds(java.util.function.Consumer<Set<UUID>> updater) {
-    Set<UUID> ids = readIds();
-    updater.accept(ids);
-    put(BROKER_IDS_KEY, ids);
-  }
-
-  private <T> Optional<T> get(String key, Class<T> type) {
-    try {
-      byte[] value = db.get(bytes(key));
-      if (value == null) {
-        return Optional.empty();
-      }
-      return Optional.of(mapper.readValue(value, type));
-    } catch (Exception e) {
-      throw new IllegalStateException("Failed to read key=" + key, e);
-    }
-  }
-
-  private <T> Optional<T> get(String key, TypeReference<T> type) {
-    try {
-      byte[] value = db.get(bytes(key));
-      if (value == null) {
-        return Optional.empty();
+    List<KafkaBroker> result = new ArrayList<>();
+    try (RocksIterator it = db.newIterator(families.get(BROKERS))) {
+      for (it.seekToFirst(); it.isValid(); it.next()) {
+        result.add(codec.decode(it.value(), KafkaBroker.class));
       }
-      return Optional.of(mapper.readValue(value, type));
     } catch (Exception e) {
-      throw new IllegalStateException("Failed to read key=" + key, e);
+      throw new IllegalStateException("Failed to read brokers", e);
     }
+    return result;
   }
 
-  private void put(String key, Object value) {
+  public void delete(UUID id) {
     try {
-      db.put(bytes(key), mapper.writeValueAsBytes(value));
+      db.delete(families.get(BROKERS), writeOptions, Keys.uuid(id));
+      brokerCache.invalidate(id);
     } catch (Exception e) {
-      throw new IllegalStateException("Failed to write key=" + key, e);
+      throw new IllegalStateException("Failed to delete broker id=" + id, e);
     }
   }
 
-  private void deleteKey(String key) {
+  private byte[] readEncoded(UUID id) {
     try {
-      db.delete(bytes(key));
+      return db.get(families.get(BROKERS), Keys.uuid(id));
     } catch (Exception e) {
-      throw new IllegalStateException("Failed to delete key=" + key, e);
+      throw new IllegalStateException("Failed to read broker id=" + id, e);
     }
   }
 
-  private String brokerKey(UUID id) {
-    return BROKER_PREFIX + ":" + id;
-  }
-
-  private byte[] bytes(String key) {
-    return key.getBytes(StandardCharsets.UTF_8);
-  }
-
 }
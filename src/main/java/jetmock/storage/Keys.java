@@ -0,0 +1,89 @@
+package jetmock.storage;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.UUID;
+import lombok.NoArgsConstructor;
+
+/**
+ * Binary key encoding shared by the storage classes.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class Keys {
+
+  public static final int UUID_LENGTH = 16;
+  private static final byte SEPARATOR = 0;
+
+  public static byte[] uuid(UUID id) {
+    return ByteBuffer.allocate(UUID_LENGTH)
+        .putLong(id.getMostSignificantBits())
+        .putLong(id.getLeastSignificantBits())
+        .array();
+  }
+
+  public static UUID toUuid(byte[] key, int offset) {
+    ByteBuffer buffer = ByteBuffer.wrap(key, offset, UUID_LENGTH);
+    return new UUID(buffer.getLong(), buffer.getLong());
+  }
+
+  public static byte[] utf8(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Two strings separated by a zero byte, so neither can run into the other.
+   */
+  public static byte[] pair(String first, String second) {
+    byte[] a = utf8(first);
+    byte[] b = utf8(second);
+    return ByteBuffer.allocate(a.length + 1 + b.length).put(a).put(SEPARATOR).put(b).array();
+  }
+
+  /**
+   * {@link #pair} followed by a zero byte, for use as a set key whose members follow it.
+   */
+  public static byte[] pairPrefix(String first, String second) {
+    byte[] pair = pair(first, second);
+    return ByteBuffer.allocate(pair.length + 1).put(pair).put(SEPARATOR).array();
+  }
+
+  /**
+   * Key of one member of a set index: the set's key followed by the member id. Members are
+   * enumerated by iterating over the set's key as a prefix.
+   */
+  public static byte[] member(byte[] set, UUID id) {
+    return ByteBuffer.allocate(set.length + UUID_LENGTH).put(set).put(uuid(id)).array();
+  }
+
+  /**
+   * Id of the member stored by {@link #member}.
+   */
+  public static UUID memberId(byte[] key) {
+    return toUuid(key, key.length - UUID_LENGTH);
+  }
+
+  public static boolean startsWith(byte[] key, byte[] prefix) {
+    return key.length >= prefix.length
+        && Arrays.equals(key, 0, prefix.length, prefix, 0, prefix.length);
+  }
+
+  /**
+   * Human readable form for debugging: printable keys as text, 16-byte keys as a UUID,
+   * anything else as hex.
+   */
+  public static String describe(byte[] key) {
+    boolean printable = true;
+    for (byte b : key) {
+      printable &= b >= 0x20 && b < 0x7f;
+    }
+    if (printable) {
+      return new String(key, StandardCharsets.US_ASCII);
+    }
+    return key.length == UUID_LENGTH ? toUuid(key, 0).toString() : HexFormat.of().formatHex(key);
+  }
+
+}
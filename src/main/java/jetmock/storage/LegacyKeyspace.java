@@ -0,0 +1,101 @@
+package jetmock.storage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksIterator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Data written before the column family layout: string keys such as {@code flow:<id>} in the
+ * default column family. On startup every storage class hands its legacy entities back to its
+ * own {@code save}, which rebuilds their indexes in the new layout, and the legacy keys are
+ * dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LegacyKeyspace {
+
+  private static final int UUID_TEXT_LENGTH = 36;
+
+  private final RocksDB db;
+  private final ObjectMapper mapper;
+
+  /**
+   * Passes every entity stored as {@code prefix + id} to {@code save}, then deletes every key
+   * under the prefix, including legacy indexes.
+   */
+  public <T> void migrate(String prefix, Class<T> type, Consumer<T> save) {
+    byte[] start = Keys.utf8(prefix);
+    List<byte[]> keys = new ArrayList<>();
+    int migrated = 0;
+
+    try (RocksIterator it = db.newIterator()) {
+      for (it.seek(start); it.isValid() && Keys.startsWith(it.key(), start); it.next()) {
+        keys.add(it.key());
+        String id = new String(it.key(), StandardCharsets.UTF_8).substring(prefix.length());
+        if (isUuid(id)) {
+          save.accept(mapper.readValue(it.value(), type));
+          migrated++;
+        }
+      }
+      for (byte[] key : keys) {
+        db.delete(key);
+      }
+    } catch (Exception e) {
+      throw new IllegalStateException("Legacy migration failed for prefix=" + prefix, e);
+    }
+
+    if (!keys.isEmpty()) {
+      log.info("Legacy keys migrated | prefix={} | entities={} | keys={}",
+          prefix, migrated, keys.size());
+    }
+  }
+
+  /**
+   * Deletes a legacy index that is rebuilt from the migrated entities.
+   */
+  public void drop(String prefix) {
+    migrate(prefix, Object.class, value -> { });
+  }
+
+  /**
+   * Removes a single legacy key and returns its value.
+   */
+  public <T> Optional<T> take(String key, TypeReference<T> type) {
+    try {
+      byte[] value = db.get(Keys.utf8(key));
+      if (value == null) {
+        return Optional.empty();
+      }
+      T decoded = mapper.readValue(value, type);
+      db.delete(Keys.utf8(key));
+      log.info("Legacy key migrated | key={}", key);
+      return Optional.of(decoded);
+    } catch (Exception e) {
+      throw new IllegalStateException("Legacy migration failed for key=" + key, e);
+    }
+  }
+
+  private static boolean isUuid(String value) {
+    if (value.length() != UUID_TEXT_LENGTH) {
+      return false;
+    }
+    try {
+      UUID.fromString(value);
+      return true;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+}
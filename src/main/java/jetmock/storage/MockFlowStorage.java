@@ -1,8 +1,20 @@
 package jetmock.storage;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.nio.charset.StandardCharsets;
+import static jetmock.storage.StoreFamily.FLOWS;
+import static jetmock.storage.StoreFamily.GROUP_FLOWS;
+import static jetmock.storage.StoreFamily.GROUP_FLOW_COUNTS;
+import static jetmock.storage.StoreFamily.KAFKA_TRIGGERS;
+import static jetmock.storage.StoreFamily.ROUTES;
+
+import jakarta.annotation.PostConstruct;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -13,7 +25,9 @@ import lombok.SneakyThrows;
 import jetmock.domain.FlowElement;
 import jetmock.domain.FlowMatchResult;
 import jetmock.domain.MockFlow;
+import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
+import org.rocksdb.RocksIterator;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -21,14 +35,21 @@ import org.springframework.stereotype.Component;
 public class MockFlowStorage {
 
   private final RocksDB db;
-  private final ObjectMapper mapper;
-
-  private static final String FLOW_PREFIX = "flow:";
-  private static final String GROUP_FLOWS = "group:%s:flows";
-  private static final String GROUP_PREFIX = "group:ids";
-  private static final String MATCH_KEY = "match:%s:%s:%s"; // groupId, method, path
-  private static final String METHOD_KEY = "match:%s:%s";   // groupId, method
-  private static final String KAFKA_TRIGGER_KEY = "kafka:%s:%s";
+  private final ColumnFamilies families;
+  private final ValueCodec codec;
+  private final LegacyKeyspace legacyKeyspace;
+  private final StoreTransactions transactions;
+  private final EntityCache<MockFlow> flowCache;
+
+  private static final byte[] EMPTY = new byte[0];
+
+  @PostConstruct
+  public void migrateLegacyKeys() {
+    legacyKeyspace.drop("match:");
+    legacyKeyspace.drop("route:");
+    legacyKeyspace.drop("kafka:");
+    legacyKeyspace.migrate("flow:", MockFlow.class, this::save);
+  }
 
   public MockFlow save(MockFlow flow) {
     try {
@@ -36,29 +57,23 @@ public class MockFlowStorage {
         flow.setId(UUID.randomUUID());
       }
 
-      put(flowKey(flow.getId()), flow);
-      addToSet(groupFlowsKey(flow.getGroupId()), flow.getId());
-      FlowMatchResult match = buildMatch(flow);
-
-      if (match.getMethod() != null) {
-        if (match.getPath() != null) {
-          put(matchKey(flow.getGroupId(), match.getMethod(), match.getPath()), match);
-        }
-        put(methodKey(flow.getGroupId(), match.getMethod()), match);
-      }
+      byte[] encoded = codec.encode(flow);
+      transactions.execute(tx -> {
+        Optional<MockFlow> previous = read(tx, flow.getId());
+        tx.put(FLOWS, Keys.uuid(flow.getId()), encoded);
 
-      buildKafkaTrigger(flow).ifPresent(kafka -> {
-            try {
-              addToSet(
-                  kafkaTriggerKey(kafka.brokerUrl, kafka.topic),
-                  flow.getId()
-              );
-            } catch (Exception e) {
-              throw new RuntimeException(e);
-            }
+        if (previous.isPresent()) {
+          if (!Objects.equals(previous.get().getGroupId(), flow.getGroupId())) {
+            removeGroupMember(tx, previous.get().getGroupId(), flow.getId());
           }
-      );
-
+          removeIndexes(tx, previous.get());
+        }
+        addGroupMember(tx, flow.getGroupId(), flow.getId());
+        addIndexes(tx, flow);
+        return null;
+      });
+      // a put could race another save's put and cache the flow that committed first
+      flowCache.invalidate(flow.getId());
       return flow;
     } catch (Exception e) {
       throw new IllegalStateException("Failed to save MockFlow", e);
@@ -67,7 +82,8 @@ public class MockFlowStorage {
 
   public int countByGroupId(UUID groupId) {
     try {
-      return readSet(groupFlowsKey(groupId)).size();
+      byte[] count = db.get(families.get(GROUP_FLOW_COUNTS), Keys.uuid(groupId));
+      return count == null ? 0 : (int) counterValue(count);
     } catch (Exception e) {
       throw new IllegalStateException("Failed to count flows for groupId=" + groupId, e);
     }
@@ -75,8 +91,7 @@ public class MockFlowStorage {
 
   public Set<MockFlow> findByKafkaTrigger(String brokerId, String topic) {
     try {
-      return readSet(kafkaTriggerKey(brokerId,
-          topic)).stream()
+      return members(KAFKA_TRIGGERS, Keys.pairPrefix(brokerId, topic)).stream()
           .map(this::findById)
           .flatMap(Optional::stream)
           .collect(Collectors.toSet());
@@ -85,25 +100,33 @@ public class MockFlowStorage {
     }
   }
 
-  public Optional<FlowMatchResult> findMatchingByMethodAndPath(
-      UUID groupId, String method, String path
-  ) {
-    return get(matchKey(groupId, method, path), FlowMatchResult.class);
-  }
-
-  public Optional<FlowMatchResult> findMatchingByMethod(
-      UUID groupId, String method
-  ) {
-    return get(methodKey(groupId, method), FlowMatchResult.class);
+  /**
+   * Every API trigger in the routes family, grouped by group id. Only the small route values
+   * are decoded, never the flows themselves.
+   */
+  public Map<UUID, List<FlowMatchResult>> findAllRoutes() {
+    Map<UUID, List<FlowMatchResult>> result = new HashMap<>();
+    try (ReadOptions options = new ReadOptions().setTotalOrderSeek(true);
+         RocksIterator it = db.newIterator(families.get(ROUTES), options)) {
+      for (it.seekToFirst(); it.isValid(); it.next()) {
+        result.computeIfAbsent(Keys.toUuid(it.key(), 0), g -> new ArrayList<>())
+            .add(codec.decode(it.value(), FlowMatchResult.class));
+      }
+    } catch (Exception e) {
+      throw new IllegalStateException("Route scan failed", e);
+    }
+    return result;
   }
 
+  /**
+   * Served from {@link EntityCache}; the returned flow is shared and must not be modified.
+   */
   public Optional<MockFlow> findById(UUID id) {
-    return get(flowKey(id), MockFlow.class);
+    return Optional.ofNullable(flowCache.get(id, this::readEncoded));
   }
 
-  @SneakyThrows
   public Set<MockFlow> findByGroupId(UUID groupId) {
-    return readSet(groupFlowsKey(groupId)).stream()
+    return members(GROUP_FLOWS, Keys.uuid(groupId)).stream()
         .map(this::findById)
         .flatMap(Optional::stream)
         .collect(Collectors.toSet());
@@ -112,47 +135,27 @@ public class MockFlowStorage {
   @SneakyThrows
   public Set<MockFlow> findAll() {
     Set<MockFlow> result = new HashSet<>();
-    Set<UUID> groups = readSet(GROUP_PREFIX);
-    for (UUID groupId : groups) {
-      result.addAll(findByGroupId(groupId));
+    try (RocksIterator it = db.newIterator(families.get(FLOWS))) {
+      for (it.seekToFirst(); it.isValid(); it.next()) {
+        result.add(codec.decode(it.value(), MockFlow.class));
+      }
     }
     return result;
   }
 
   public void delete(UUID id) {
     try {
-      Optional<MockFlow> opt = findById(id);
-      if (opt.isEmpty()) {
-        return;
-      }
-
-      MockFlow flow = opt.get();
-      db.delete(bytes(flowKey(id)));
-      removeFromSet(groupFlowsKey(flow.getGroupId()), id);
-
-      FlowMatchResult match = buildMatch(flow);
-
-      if (match.getMethod() != null) {
-        if (match.getPath() != null) {
-          db.delete(bytes(matchKey(flow.getGroupId(), match.getMethod(), match.getPath())));
+      transactions.execute(tx -> {
+        Optional<MockFlow> opt = read(tx, id);
+        if (opt.isPresent()) {
+          MockFlow flow = opt.get();
+          tx.delete(FLOWS, Keys.uuid(id));
+          removeGroupMember(tx, flow.getGroupId(), id);
+          removeIndexes(tx, flow);
         }
-        db.delete(bytes(methodKey(flow.getGroupId(), match.getMethod())));
-      }
-
-      // 🔴 KAFKA TRIGGER CLEANUP
-      buildKafkaTrigger(flow).ifPresent(kafka ->
-          {
-            try {
-              removeFromSet(
-                  kafkaTriggerKey(kafka.brokerUrl, kafka.topic),
-                  id
-              );
-            } catch (Exception e) {
-              throw new RuntimeException(e);
-            }
-          }
-      );
-
+        return null;
+      });
+      flowCache.invalidate(id);
     } catch (Exception e) {
       throw new IllegalStateException("Failed to delete MockFlow id=" + id, e);
     }
@@ -160,26 +163,59 @@ public class MockFlowStorage {
 
   // ===================== INTERNAL =====================
 
+  private void addIndexes(StoreTransaction tx, MockFlow flow) throws Exception {
+    FlowMatchResult match = buildMatch(flow);
+    if (match.getMethod() != null && match.getPath() != null) {
+      put(tx, ROUTES, routeKey(flow.getGroupId(), match), match);
+    }
+
+    Optional<KafkaTrigger> kafka = buildKafkaTrigger(flow);
+    if (kafka.isPresent()) {
+      tx.put(KAFKA_TRIGGERS, kafkaMember(kafka.get(), flow.getId()), EMPTY);
+    }
+  }
+
+  private void removeIndexes(StoreTransaction tx, MockFlow flow) throws Exception {
+    FlowMatchResult match = buildMatch(flow);
+    if (match.getMethod() != null && match.getPath() != null) {
+      tx.delete(ROUTES, routeKey(flow.getGroupId(), match));
+    }
+
+    // 🔴 KAFKA TRIGGER CLEANUP
+    Optional<KafkaTrigger> kafka = buildKafkaTrigger(flow);
+    if (kafka.isPresent()) {
+      tx.delete(KAFKA_TRIGGERS, kafkaMember(kafka.get(), flow.getId()));
+    }
+  }
+
   private FlowMatchResult buildMatch(MockFlow flow) {
     String path = null;
     String method = null;
     String expr = null;
+    String matcher = null;
 
     for (FlowElement e : flow.getFlowElements()) {
       if ("API_TRIGGER_REQUEST".equals(e.getName())) {
         path = attr(e, "path");
         method = attr(e, "method");
+        method = method == null ? null : method.toUpperCase(Locale.ROOT);
       }
       if ("CONDITION".equals(e.getName())) {
         expr = attr(e, "expression");
       }
+      if ("MATCHER".equals(e.getName())) {
+        matcher = attr(e, "predicates");
+      }
     }
 
     return FlowMatchResult.builder()
         .id(flow.getId())
+        .version(flow.effectiveVersion())
+        .priority(flow.effectivePriority())
         .path(path)
         .method(method)
         .expression(expr)
+        .matcher(matcher)
         .build();
   }
 
@@ -205,69 +241,91 @@ public class MockFlowStorage {
         .orElse(null);
   }
 
-  private void put(String key, Object value) throws Exception {
-    db.put(bytes(key), mapper.writeValueAsBytes(value));
+  private void put(StoreTransaction tx, StoreFamily family, byte[] key, Object value)
+      throws Exception {
+    tx.put(family, key, codec.encode(value));
   }
 
-  private <T> Optional<T> get(String key, Class<T> type) {
+  private Optional<MockFlow> read(StoreTransaction tx, UUID id) throws Exception {
+    byte[] v = tx.get(FLOWS, Keys.uuid(id));
+    return v == null ? Optional.empty() : Optional.of(codec.decode(v, MockFlow.class));
+  }
+
+  private byte[] readEncoded(UUID id) {
     try {
-      byte[] v = db.get(bytes(key));
-      if (v == null) {
-        return Optional.empty();
-      }
-      return Optional.of(mapper.readValue(v, type));
+      return db.get(families.get(FLOWS), Keys.uuid(id));
     } catch (Exception e) {
-      throw new IllegalStateException("Read failed: " + key, e);
+      throw new IllegalStateException("Read failed: " + FLOWS.id() + "/" + id, e);
     }
   }
 
-  private void addToSet(String key, UUID id) throws Exception {
-    Set<UUID> set = readSet(key);
-    set.add(id);
-    put(key, set);
-  }
-
-  private void removeFromSet(String key, UUID id) throws Exception {
-    Set<UUID> set = readSet(key);
-    if (set.remove(id)) {
-      put(key, set);
+  /**
+   * The counter only moves when membership actually changes, so re-saving a flow leaves it
+   * untouched.
+   */
+  private void addGroupMember(StoreTransaction tx, UUID groupId, UUID flowId) throws Exception {
+    byte[] member = Keys.member(Keys.uuid(groupId), flowId);
+    if (tx.get(GROUP_FLOWS, member) == null) {
+      tx.put(GROUP_FLOWS, member, EMPTY);
+      tx.merge(GROUP_FLOW_COUNTS, Keys.uuid(groupId), counterDelta(1));
     }
   }
 
-  private Set<UUID> readSet(String key) throws Exception {
-    byte[] v = db.get(bytes(key));
-    if (v == null) {
-      return new HashSet<>();
+  private void removeGroupMember(StoreTransaction tx, UUID groupId, UUID flowId) throws Exception {
+    byte[] member = Keys.member(Keys.uuid(groupId), flowId);
+    if (tx.get(GROUP_FLOWS, member) != null) {
+      tx.delete(GROUP_FLOWS, member);
+      tx.merge(GROUP_FLOW_COUNTS, Keys.uuid(groupId), counterDelta(-1));
     }
-    return mapper.readValue(
-        v,
-        mapper.getTypeFactory()
-            .constructCollectionType(Set.class, UUID.class)
-    );
   }
 
-  private String flowKey(UUID id) {
-    return FLOW_PREFIX + id;
+  private List<UUID> members(StoreFamily family, byte[] prefix) {
+    List<UUID> result = new ArrayList<>();
+    try (ReadOptions options = new ReadOptions().setPrefixSameAsStart(true);
+         RocksIterator it = db.newIterator(families.get(family), options)) {
+      for (it.seek(prefix); it.isValid() && Keys.startsWith(it.key(), prefix); it.next()) {
+        result.add(Keys.memberId(it.key()));
+      }
+    }
+    return result;
   }
 
-  private String groupFlowsKey(UUID groupId) {
-    return String.format(GROUP_FLOWS, groupId);
+  private byte[] kafkaMember(KafkaTrigger trigger, UUID flowId) {
+    return Keys.member(Keys.pairPrefix(trigger.brokerUrl, trigger.topic), flowId);
   }
 
-  private String matchKey(UUID groupId, String method, String path) {
-    return String.format(MATCH_KEY, groupId, method, path);
+  /**
+   * uint64add operands and values are little-endian; a decrement is the two's complement.
+   */
+  private static byte[] counterDelta(long delta) {
+    return ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(delta).array();
   }
 
-  private String methodKey(UUID groupId, String method) {
-    return String.format(METHOD_KEY, groupId, method);
+  private static long counterValue(byte[] value) {
+    return ByteBuffer.wrap(value).order(ByteOrder.LITTLE_ENDIAN).getLong();
   }
 
-  private String kafkaTriggerKey(String brokerUrl, String topic) {
-    return String.format(KAFKA_TRIGGER_KEY, brokerUrl, topic);
+  /**
+   * Group id, method and a zero byte; the group id alone is the prefix the routes family
+   * extracts for its prefix bloom filter.
+   */
+  private byte[] routePrefix(UUID groupId, String method) {
+    byte[] methodBytes = Keys.utf8(method);
+    return ByteBuffer.allocate(Keys.UUID_LENGTH + methodBytes.length + 1)
+        .put(Keys.uuid(groupId))
+        .put(methodBytes)
+        .put((byte) 0)
+        .array();
   }
 
-  private byte[] bytes(String key) {
-    return key.getBytes(StandardCharsets.UTF_8);
+  private byte[] routeKey(UUID groupId, FlowMatchResult match) {
+    byte[] prefix = routePrefix(groupId, match.getMethod());
+    // flipping the sign bit keeps negative priorities ahead of positive ones in key order
+    return ByteBuffer.allocate(prefix.length + Integer.BYTES + Keys.UUID_LENGTH)
+        .put(prefix)
+        .putInt(match.getPriority() ^ Integer.MIN_VALUE)
+        .put(Keys.uuid(match.getId()))
+        .array();
   }
 
   private record KafkaTrigger(String brokerUrl, String topic) {
@@ -0,0 +1,61 @@
+package jetmock.storage;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Column families of the store, one per entity type and index. Keys are binary: UUIDs are
+ * stored as their 16 raw bytes, strings as UTF-8 separated by a zero byte.
+ */
+public enum StoreFamily {
+
+  /** flowId → {@code MockFlow}. */
+  FLOWS("flows"),
+  /** groupId → {@code MockGroup}. */
+  GROUPS("groups"),
+  /** lower-case group name → groupId. */
+  GROUP_NAMES("group-names"),
+  /** groupId, flowId → empty; one key per flow of the group. */
+  GROUP_FLOWS("group-flows"),
+  /** groupId → number of flows of the group, a 64-bit counter updated by merge. */
+  GROUP_FLOW_COUNTS("group-flow-counts", true),
+  /** groupId, method, 0, priority, flowId → {@code FlowMatchResult}. */
+  ROUTES("routes"),
+  /** broker url, 0, topic, 0, flowId → empty; one key per flow triggered by the topic. */
+  KAFKA_TRIGGERS("kafka-triggers"),
+  /** brokerId → {@code KafkaBroker}. */
+  BROKERS("brokers"),
+  /** global variables. */
+  GLOBALS("globals");
+
+  private final String id;
+  private final boolean counters;
+
+  StoreFamily(String id) {
+    this(id, false);
+  }
+
+  StoreFamily(String id, boolean counters) {
+    this.id = id;
+    this.counters = counters;
+  }
+
+  /**
+   * Name of the column family, also the key of its tuning under {@code jetmock.rocksdb.families}.
+   */
+  public String id() {
+    return id;
+  }
+
+  /**
+   * Whether values are unsigned 64-bit counters merged with RocksDB's {@code uint64add}.
+   */
+  public boolean isCounters() {
+    return counters;
+  }
+
+  public static Optional<StoreFamily> of(String id) {
+    return Arrays.stream(values()).filter(f -> f.id.equals(id)).findFirst();
+  }
+
+}
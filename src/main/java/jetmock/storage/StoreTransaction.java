@@ -0,0 +1,44 @@
+package jetmock.storage;
+
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Transaction;
+
+/**
+ * Reads and writes of one optimistic transaction, possibly across families, committed
+ * atomically with a single WAL record. Reads see the transaction's own pending writes and mark
+ * the key for conflict detection: the commit fails if another writer changed it in between.
+ * Created by {@link StoreTransactions#execute}.
+ */
+public final class StoreTransaction {
+
+  private final Transaction transaction;
+  private final ColumnFamilies families;
+  private final ReadOptions readOptions;
+
+  StoreTransaction(Transaction transaction, ColumnFamilies families, ReadOptions readOptions) {
+    this.transaction = transaction;
+    this.families = families;
+    this.readOptions = readOptions;
+  }
+
+  public byte[] get(StoreFamily family, byte[] key) throws RocksDBException {
+    return transaction.getForUpdate(readOptions, families.get(family), key, true);
+  }
+
+  public void put(StoreFamily family, byte[] key, byte[] value) throws RocksDBException {
+    transaction.put(families.get(family), key, value);
+  }
+
+  /**
+   * Merges the operand into the key with the family's merge operator, without reading it.
+   */
+  public void merge(StoreFamily family, byte[] key, byte[] operand) throws RocksDBException {
+    transaction.merge(families.get(family), key, operand);
+  }
+
+  public void delete(StoreFamily family, byte[] key) throws RocksDBException {
+    transaction.delete(families.get(family), key);
+  }
+
+}
@@ -0,0 +1,75 @@
+package jetmock.storage;
+
+import java.util.concurrent.ThreadLocalRandom;
+import jetmock.config.RocksDbProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.OptimisticTransactionDB;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Status;
+import org.rocksdb.Transaction;
+import org.rocksdb.WriteOptions;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs read-modify-write storage operations as optimistic transactions. Writers never block
+ * each other; a commit that lost a race on one of the keys it read is rolled back and the whole
+ * operation re-run after a short, jittered, exponentially growing pause, up to
+ * {@code jetmock.rocksdb.transaction.max-attempts} times.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoreTransactions {
+
+  private final OptimisticTransactionDB db;
+  private final ColumnFamilies families;
+  private final WriteOptions writeOptions;
+  private final RocksDbProperties properties;
+
+  @FunctionalInterface
+  public interface Work<T> {
+
+    T apply(StoreTransaction transaction) throws Exception;
+
+  }
+
+  public <T> T execute(Work<T> work) throws Exception {
+    RocksDbProperties.Transaction retry = properties.getTransaction();
+    for (int attempt = 1; ; attempt++) {
+      try (Transaction transaction = db.beginTransaction(writeOptions);
+           ReadOptions readOptions = new ReadOptions()) {
+        T result = work.apply(new StoreTransaction(transaction, families, readOptions));
+        try {
+          transaction.commit();
+          return result;
+        } catch (RocksDBException e) {
+          transaction.rollback();
+          if (!isConflict(e) || attempt >= retry.getMaxAttempts()) {
+            throw e;
+          }
+          log.debug("Storage write conflict, retrying | attempt={}", attempt);
+        }
+      }
+      backoff(retry, attempt);
+    }
+  }
+
+  private static boolean isConflict(RocksDBException e) {
+    Status.Code code = e.getStatus() == null ? null : e.getStatus().getCode();
+    return code == Status.Code.Busy || code == Status.Code.TryAgain;
+  }
+
+  private static void backoff(RocksDbProperties.Transaction retry, int attempt) {
+    long ceiling = Math.min(retry.getMaxBackoffMillis(),
+        retry.getBackoffMillis() << Math.min(attempt - 1, 20));
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while retrying a storage write", e);
+    }
+  }
+
+}
@@ -0,0 +1,164 @@
+package jetmock.storage;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import jetmock.config.RocksDbProperties;
+import jetmock.domain.FlowMatchResult;
+import jetmock.domain.MockFlow;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encodes stored values. Every value starts with a header byte naming its format, so formats
+ * can change while old values stay readable:
+ * <ul>
+ *   <li>{@code 0x01} Smile, {@code 0x02} CBOR: any type, via Jackson;</li>
+ *   <li>{@code 0x10} {@link MockFlow}, {@code 0x11} {@link FlowMatchResult}: version 1 of
+ *       {@link EntityBinaryFormat};</li>
+ *   <li>no header: plain JSON, as written before the header existed and when
+ *       {@code jetmock.rocksdb.codec.format} is {@code json}. JSON text never starts with a
+ *       byte below {@code 0x20}.</li>
+ * </ul>
+ */
+@Component
+public class ValueCodec {
+
+  private static final byte SMILE = 0x01;
+  private static final byte CBOR = 0x02;
+  private static final byte FLOW_V1 = 0x10;
+  private static final byte MATCH_V1 = 0x11;
+
+  private final ObjectMapper json;
+  private final ObjectMapper smile;
+  private final ObjectMapper cbor;
+  private final EntityBinaryFormat binary;
+  private final byte format;
+  private final boolean binaryEntities;
+
+  public ValueCodec(Jackson2ObjectMapperBuilder builder, RocksDbProperties properties) {
+    this.json = builder.build();
+    this.smile = builder.factory(new SmileFactory()).build();
+    this.cbor = builder.factory(new CBORFactory()).build();
+    this.binary = new EntityBinaryFormat(smile);
+    this.format = switch (properties.getCodec().getFormat().toLowerCase(Locale.ROOT)) {
+      case "json" -> 0;
+      case "cbor" -> CBOR;
+      case "smile" -> SMILE;
+      default -> throw new IllegalArgumentException(
+          "Unknown jetmock.rocksdb.codec.format: " + properties.getCodec().getFormat());
+    };
+    this.binaryEntities = properties.getCodec().isBinaryEntities();
+  }
+
+  public byte[] encode(Object value) {
+    try {
+      if (binaryEntities && value instanceof MockFlow flow) {
+        return binary(FLOW_V1, out -> binary.writeFlow(flow, out));
+      }
+      if (binaryEntities && value instanceof FlowMatchResult match) {
+        return binary(MATCH_V1, out -> binary.writeMatch(match, out));
+      }
+      return switch (format) {
+        case SMILE -> withHeader(SMILE, smile.writeValueAsBytes(value));
+        case CBOR -> withHeader(CBOR, cbor.writeValueAsBytes(value));
+        default -> json.writeValueAsBytes(value);
+      };
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public <T> T decode(byte[] bytes, Class<T> type) {
+    return decode(bytes, json.constructType(type));
+  }
+
+  public <T> T decode(byte[] bytes, JavaType type) {
+    try {
+      return switch (bytes.length == 0 ? 0 : bytes[0]) {
+        case SMILE -> smile.readValue(bytes, 1, bytes.length - 1, type);
+        case CBOR -> cbor.readValue(bytes, 1, bytes.length - 1, type);
+        case FLOW_V1 -> as(binary.readFlow(binaryInput(bytes)), type);
+        case MATCH_V1 -> as(binary.readMatch(binaryInput(bytes)), type);
+        default -> json.readValue(bytes, type);
+      };
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Generic tree of any stored value, for debugging.
+   */
+  public JsonNode decodeTree(byte[] bytes) {
+    return decode(bytes, JsonNode.class);
+  }
+
+  /**
+   * Whether the value is written in the format {@link #encode} currently produces for its type.
+   */
+  public boolean isCurrent(byte[] bytes, JavaType type) {
+    byte header = bytes.length == 0 ? 0 : bytes[0];
+    if (binaryEntities && type.hasRawClass(MockFlow.class)) {
+      return header == FLOW_V1;
+    }
+    if (binaryEntities && type.hasRawClass(FlowMatchResult.class)) {
+      return header == MATCH_V1;
+    }
+    return format == 0 ? header >= 0x20 || header < 0 : header == format;
+  }
+
+  public JavaType type(Class<?> type) {
+    return json.constructType(type);
+  }
+
+  public ObjectMapper jsonMapper() {
+    return json;
+  }
+
+  /**
+   * The decoded entity itself when the requested type accepts it, which is the hot path;
+   * otherwise (e.g. a {@link JsonNode} for debugging) a Jackson conversion.
+   */
+  @SuppressWarnings("unchecked")
+  private <T> T as(Object value, JavaType type) {
+    return type.getRawClass().isInstance(value) ? (T) value : json.convertValue(value, type);
+  }
+
+  private static byte[] withHeader(byte header, byte[] body) {
+    byte[] bytes = new byte[body.length + 1];
+    bytes[0] = header;
+    System.arraycopy(body, 0, bytes, 1, body.length);
+    return bytes;
+  }
+
+  private static byte[] binary(byte header, BinaryWriter writer) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeByte(header);
+    writer.write(out);
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  private static DataInputStream binaryInput(byte[] bytes) {
+    return new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1));
+  }
+
+  @FunctionalInterface
+  private interface BinaryWriter {
+
+    void write(DataOutputStream out) throws IOException;
+
+  }
+
+}
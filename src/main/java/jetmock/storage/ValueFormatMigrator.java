@@ -0,0 +1,120 @@
+package jetmock.storage;
+
+import static jetmock.storage.StoreFamily.BROKERS;
+import static jetmock.storage.StoreFamily.FLOWS;
+import static jetmock.storage.StoreFamily.GLOBALS;
+import static jetmock.storage.StoreFamily.GROUPS;
+import static jetmock.storage.StoreFamily.GROUP_NAMES;
+import static jetmock.storage.StoreFamily.ROUTES;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import jetmock.config.RocksDbProperties;
+import jetmock.domain.FlowMatchResult;
+import jetmock.domain.GlobalVariable;
+import jetmock.domain.KafkaBroker;
+import jetmock.domain.MockFlow;
+import jetmock.domain.MockGroup;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksIterator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Re-encodes values written in an older format, such as JSON from before {@link ValueCodec},
+ * into the current one. Runs once per startup on a background thread; reads keep working on
+ * either format meanwhile. Keys are rewritten in small transactions that re-check the value,
+ * so a concurrent save is never overwritten with stale data.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ValueFormatMigrator {
+
+  private static final int CHUNK = 256;
+
+  private final RocksDB db;
+  private final ColumnFamilies families;
+  private final ValueCodec codec;
+  private final StoreTransactions transactions;
+  private final RocksDbProperties properties;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (properties.getCodec().isMigrate()) {
+      Thread.ofPlatform().daemon().name("value-migrator").start(this::migrateAll);
+    }
+  }
+
+  void migrateAll() {
+    valueTypes().forEach((family, type) -> {
+      try {
+        int migrated = migrate(family, type);
+        if (migrated > 0) {
+          log.info("Values re-encoded | family={} | count={}", family.id(), migrated);
+        }
+      } catch (Exception e) {
+        log.error("Value migration failed | family={}", family.id(), e);
+      }
+    });
+  }
+
+  private int migrate(StoreFamily family, JavaType type) throws Exception {
+    int migrated = 0;
+    List<byte[]> chunk = new ArrayList<>(CHUNK);
+
+    try (RocksIterator it = db.newIterator(families.get(family))) {
+      for (it.seekToFirst(); it.isValid(); it.next()) {
+        if (!codec.isCurrent(it.value(), type)) {
+          chunk.add(it.key());
+        }
+        if (chunk.size() == CHUNK) {
+          migrated += reencode(family, type, chunk);
+          chunk.clear();
+        }
+      }
+    }
+    return migrated + reencode(family, type, chunk);
+  }
+
+  private int reencode(StoreFamily family, JavaType type, List<byte[]> keys) throws Exception {
+    if (keys.isEmpty()) {
+      return 0;
+    }
+    return transactions.execute(tx -> {
+      int count = 0;
+      for (byte[] key : keys) {
+        byte[] value = tx.get(family, key);
+        if (value != null && !codec.isCurrent(value, type)) {
+          tx.put(family, key, codec.encode(codec.decode(value, type)));
+          count++;
+        }
+      }
+      return count;
+    });
+  }
+
+  /**
+   * Families holding encoded values; set members and counters have no value to convert.
+   */
+  private static Map<StoreFamily, JavaType> valueTypes() {
+    TypeFactory types = TypeFactory.defaultInstance();
+    Map<StoreFamily, JavaType> result = new EnumMap<>(StoreFamily.class);
+    result.put(FLOWS, types.constructType(MockFlow.class));
+    result.put(ROUTES, types.constructType(FlowMatchResult.class));
+    result.put(GROUPS, types.constructType(MockGroup.class));
+    result.put(GROUP_NAMES, types.constructType(UUID.class));
+    result.put(BROKERS, types.constructType(KafkaBroker.class));
+    result.put(GLOBALS, types.constructType(GlobalVariable.class));
+    return result;
+  }
+
+}
@@ -0,0 +1,104 @@
+package jetmock.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import jetmock.domain.GlobalVariable;
+import jetmock.domain.VariableScope;
+
+/**
+ * Immutable view of all variables, keyed by lower-case name within each scope. Writers build a
+ * new snapshot with {@link #with}, copying only the maps of the scope they change, and publish
+ * it; readers resolve a name with at most three hash lookups and no locking.
+ */
+final class VariableSnapshot {
+
+  static final VariableSnapshot EMPTY = new VariableSnapshot(Map.of(), Map.of(), Map.of());
+
+  private final Map<String, GlobalVariable> global;
+  private final Map<UUID, Map<String, GlobalVariable>> groups;
+  private final Map<UUID, Map<String, GlobalVariable>> flows;
+
+  private VariableSnapshot(Map<String, GlobalVariable> global,
+                           Map<UUID, Map<String, GlobalVariable>> groups,
+                           Map<UUID, Map<String, GlobalVariable>> flows) {
+    this.global = global;
+    this.groups = groups;
+    this.flows = flows;
+  }
+
+  static String normalize(String key) {
+    return key.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * The variable of the flow, else of the group, else the global one; {@code null} when none
+   * exists. Either id may be {@code null}.
+   */
+  GlobalVariable resolve(String key, UUID groupId, UUID flowId) {
+    String name = normalize(key);
+    GlobalVariable variable = flowId == null ? null : scoped(flows, flowId, name);
+    if (variable == null && groupId != null) {
+      variable = scoped(groups, groupId, name);
+    }
+    return variable == null ? global.get(name) : variable;
+  }
+
+  List<GlobalVariable> global() {
+    return new ArrayList<>(global.values());
+  }
+
+  VariableSnapshot with(GlobalVariable variable) {
+    String name = normalize(variable.getKey());
+    return switch (variable.effectiveScope()) {
+      case GLOBAL -> new VariableSnapshot(put(global, name, variable), groups, flows);
+      case GROUP -> new VariableSnapshot(global, with(groups, variable, name), flows);
+      case FLOW -> new VariableSnapshot(global, groups, with(flows, variable, name));
+    };
+  }
+
+  /**
+   * Drops every variable of the group or flow; the global scope is never dropped as a whole.
+   */
+  VariableSnapshot without(VariableScope scope, UUID id) {
+    return switch (scope) {
+      case GLOBAL -> this;
+      case GROUP -> groups.containsKey(id)
+          ? new VariableSnapshot(global, without(groups, id), flows) : this;
+      case FLOW -> flows.containsKey(id)
+          ? new VariableSnapshot(global, groups, without(flows, id)) : this;
+    };
+  }
+
+  private static GlobalVariable scoped(Map<UUID, Map<String, GlobalVariable>> scopes, UUID id,
+                                       String name) {
+    Map<String, GlobalVariable> variables = scopes.get(id);
+    return variables == null ? null : variables.get(name);
+  }
+
+  private static Map<UUID, Map<String, GlobalVariable>> with(
+      Map<UUID, Map<String, GlobalVariable>> scopes, GlobalVariable variable, String name) {
+    Map<UUID, Map<String, GlobalVariable>> copy = new HashMap<>(scopes);
+    copy.put(variable.getScopeId(),
+        put(scopes.getOrDefault(variable.getScopeId(), Map.of()), name, variable));
+    return copy;
+  }
+
+  private static Map<UUID, Map<String, GlobalVariable>> without(
+      Map<UUID, Map<String, GlobalVariable>> scopes, UUID id) {
+    Map<UUID, Map<String, GlobalVariable>> copy = new HashMap<>(scopes);
+    copy.remove(id);
+    return copy;
+  }
+
+  private static Map<String, GlobalVariable> put(Map<String, GlobalVariable> variables,
+                                                 String name, GlobalVariable variable) {
+    Map<String, GlobalVariable> copy = new HashMap<>(variables);
+    copy.put(name, variable);
+    return copy;
+  }
+
+}
@@ -39,8 +39,7 @@ public class ParserUtil {
       return null;
     }
     try {
-      return new ObjectMapper().readValue(json, new TypeReference<>() {
-      });
+      return objectMapper.readValue(json, MAP_STRING_OBJECT);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -51,8 +50,7 @@ public class ParserUtil {
       return null;
     }
     try {
-      return new ObjectMapper().readValue(json, new TypeReference<>() {
-      });
+      return objectMapper.readValue(json, MAP_STRING_STRING);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -0,0 +1,58 @@
+package jetmock.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import jetmock.dto.payload.TriggerPayload;
+import org.junit.jupiter.api.Test;
+
+class MatcherIndexTest {
+
+  private static final Map<String, RequestMatcher> MATCHERS = Map.of(
+      "card", equalTo("card"),
+      "either", RequestMatcher.compile(
+          "[{\"selector\":\"$.type\",\"op\":\"in\",\"values\":[\"card\",\"cash\"]}]"),
+      "cash", equalTo("cash"));
+
+  private final MatcherIndex<String> index =
+      MatcherIndex.build(List.of("card", "either", "plain", "cash"), MATCHERS::get);
+
+  @Test
+  void selectsTheBucketOfTheValueAndCandidatesWithoutPredicateInOrder() {
+    assertThat(index.select(body(Map.of("type", "card"))))
+        .containsExactly("card", "either", "plain");
+    assertThat(index.select(body(Map.of("type", "cash"))))
+        .containsExactly("either", "plain", "cash");
+  }
+
+  @Test
+  void keepsOnlyUnconstrainedCandidatesForUnknownOrMissingValues() {
+    assertThat(index.select(body(Map.of("type", "voucher")))).containsExactly("plain");
+    assertThat(index.select(body(Map.of("amount", 10)))).containsExactly("plain");
+    assertThat(index.select(body(null))).containsExactly("plain");
+  }
+
+  @Test
+  void returnsEveryCandidateWhenTheSelectorReadsACollection() {
+    assertThat(index.select(body(Map.of("type", List.of("card", "cash")))))
+        .containsExactly("card", "either", "plain", "cash");
+  }
+
+  @Test
+  void doesNotIndexASelectorUsedByASingleCandidate() {
+    MatcherIndex<String> single = MatcherIndex.build(List.of("card", "plain"), MATCHERS::get);
+
+    assertThat(single.select(body(Map.of("type", "cash")))).containsExactly("card", "plain");
+  }
+
+  private static RequestMatcher equalTo(String value) {
+    return RequestMatcher.compile(
+        "[{\"selector\":\"$.type\",\"op\":\"equalTo\",\"value\":\"" + value + "\"}]");
+  }
+
+  private static TriggerPayload body(Map<String, Object> body) {
+    return TriggerPayload.lazy(Map::of, () -> body);
+  }
+
+}
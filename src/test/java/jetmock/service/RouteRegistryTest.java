@@ -0,0 +1,179 @@
+package jetmock.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import jetmock.domain.ElementAttribute;
+import jetmock.domain.FlowElement;
+import jetmock.domain.FlowMatchResult;
+import jetmock.domain.MockFlow;
+import jetmock.dto.payload.TriggerPayload;
+import jetmock.service.RouteRegistry.RouteMatch;
+import jetmock.storage.MockFlowStorage;
+import org.junit.jupiter.api.Test;
+
+class RouteRegistryTest {
+
+  private static final UUID GROUP = UUID.randomUUID();
+
+  private final MockFlowStorage storage = mock(MockFlowStorage.class);
+  private final ElementService elementService = mock(ElementService.class, CALLS_REAL_METHODS);
+  private final RouteRegistry registry = new RouteRegistry(storage, elementService,
+      new ConditionEvaluator(elementService, new ExpressionCompiler(100, 1000)));
+
+  @Test
+  void staticSegmentTakesPrecedenceOverParameter() {
+    MockFlow byId = flow(1, "GET", "/orders/:id");
+    MockFlow latest = flow(1, "GET", "/orders/latest");
+    registry.register(byId);
+    registry.register(latest);
+
+    assertThat(ids(match("GET", "/orders/latest"))).containsExactly(latest.getId());
+
+    List<RouteMatch> matches = match("GET", "/orders/42");
+    assertThat(ids(matches)).containsExactly(byId.getId());
+    assertThat(matches.get(0).pathVariables()).containsEntry("id", "42");
+  }
+
+  @Test
+  void fallsBackToParameterWhenTheStaticBranchHasNoRoute() {
+    registry.register(flow(1, "GET", "/a/b/c"));
+    MockFlow param = flow(1, "GET", "/a/:x/d");
+    registry.register(param);
+
+    List<RouteMatch> matches = match("GET", "/a/b/d");
+    assertThat(ids(matches)).containsExactly(param.getId());
+    assertThat(matches.get(0).pathVariables()).containsEntry("x", "b");
+  }
+
+  @Test
+  void matchesMethodsCaseInsensitively() {
+    registry.register(flow(1, "post", "/orders"));
+
+    assertThat(match("POST", "/orders")).hasSize(1);
+    assertThat(match("post", "/orders")).hasSize(1);
+    assertThat(match("GET", "/orders")).isEmpty();
+    assertThat(registry.isRouted(GROUP, "GET", "/orders")).isFalse();
+  }
+
+  @Test
+  void ordersCandidatesByPriorityAndMarksOnlySingleFlowRoutesSole() {
+    MockFlow second = flow(2, "GET", "/shared");
+    MockFlow first = flow(1, "GET", "/shared");
+    MockFlow alone = flow(1, "GET", "/alone");
+    List.of(second, first, alone).forEach(registry::register);
+
+    List<RouteMatch> shared = match("GET", "/shared");
+    assertThat(ids(shared)).containsExactly(first.getId(), second.getId());
+    assertThat(shared).noneMatch(RouteMatch::sole);
+    assertThat(match("GET", "/alone")).singleElement().matches(RouteMatch::sole);
+  }
+
+  @Test
+  void matcherIndexKeepsConditionOnlyFlowsAndNeverMarksThemSole() {
+    MockFlow card = flow(1, "POST", "/pay", matcher("card"));
+    MockFlow cash = flow(2, "POST", "/pay", matcher("cash"));
+    MockFlow conditional = flow(3, "POST", "/pay",
+        element("CONDITION", "expression", "#trigger.body != null"));
+    List.of(card, cash, conditional).forEach(registry::register);
+
+    assertThat(ids(match("POST", "/pay", Map.of("type", "cash"))))
+        .containsExactly(cash.getId(), conditional.getId());
+
+    List<RouteMatch> other = match("POST", "/pay", Map.of("type", "voucher"));
+    assertThat(ids(other)).containsExactly(conditional.getId());
+    assertThat(other.get(0).sole()).isFalse();
+    assertThat(registry.isRouted(GROUP, "POST", "/pay")).isTrue();
+  }
+
+  @Test
+  void reRegisteringMovesAFlowToItsNewMethod() {
+    MockFlow flow = flow(1, "GET", "/orders");
+    registry.register(flow);
+
+    flow.setFlowElements(List.of(trigger("PUT", "/orders")));
+    registry.register(flow);
+
+    assertThat(match("GET", "/orders")).isEmpty();
+    assertThat(ids(match("PUT", "/orders"))).containsExactly(flow.getId());
+  }
+
+  @Test
+  void unregisterRemovesTheRoute() {
+    MockFlow kept = flow(1, "GET", "/kept");
+    MockFlow removed = flow(1, "GET", "/removed");
+    registry.register(kept);
+    registry.register(removed);
+
+    registry.unregister(removed);
+
+    assertThat(registry.isRouted(GROUP, "GET", "/removed")).isFalse();
+    assertThat(ids(match("GET", "/kept"))).containsExactly(kept.getId());
+  }
+
+  @Test
+  void loadsRoutesFromTheStoredIndex() {
+    FlowMatchResult route = FlowMatchResult.builder()
+        .id(UUID.randomUUID()).priority(1).method("GET").path("/stored/:id").build();
+    when(storage.findAllRoutes()).thenReturn(Map.of(GROUP, List.of(route)));
+
+    registry.load();
+
+    assertThat(ids(match("GET", "/stored/7"))).containsExactly(route.getId());
+  }
+
+  private List<RouteMatch> match(String method, String path) {
+    return match(method, path, Map.of());
+  }
+
+  private List<RouteMatch> match(String method, String path, Map<String, Object> body) {
+    return registry.match(GROUP, method, path, TriggerPayload.lazy(Map::of, () -> body));
+  }
+
+  private static List<UUID> ids(List<RouteMatch> matches) {
+    return matches.stream().map(m -> m.match().getId()).toList();
+  }
+
+  private static MockFlow flow(int priority, String method, String path, FlowElement... extra) {
+    List<FlowElement> elements = new ArrayList<>(List.of(trigger(method, path)));
+    elements.addAll(List.of(extra));
+    return MockFlow.builder()
+        .id(UUID.randomUUID())
+        .groupId(GROUP)
+        .priority(priority)
+        .flowElements(elements)
+        .build();
+  }
+
+  private static FlowElement trigger(String method, String path) {
+    return FlowElement.builder()
+        .name("API_TRIGGER_REQUEST")
+        .orderNumber(1)
+        .attributes(List.of(attribute("method", method), attribute("path", path)))
+        .build();
+  }
+
+  private static FlowElement matcher(String type) {
+    return element("MATCHER", "predicates",
+        "[{\"selector\":\"$.type\",\"op\":\"equalTo\",\"value\":\"" + type + "\"}]");
+  }
+
+  private static FlowElement element(String name, String attribute, String value) {
+    return FlowElement.builder()
+        .name(name)
+        .orderNumber(2)
+        .attributes(List.of(attribute(attribute, value)))
+        .build();
+  }
+
+  private static ElementAttribute attribute(String name, String value) {
+    return new ElementAttribute(name, "STRING", value);
+  }
+
+}
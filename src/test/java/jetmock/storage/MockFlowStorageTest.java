@@ -0,0 +1,192 @@
+package jetmock.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import jetmock.config.RocksDbConfig;
+import jetmock.config.RocksDbProperties;
+import jetmock.config.RocksDbProperties.FamilyOptions;
+import jetmock.domain.ElementAttribute;
+import jetmock.domain.FlowElement;
+import jetmock.domain.FlowMatchResult;
+import jetmock.domain.MockFlow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rocksdb.OptimisticTransactionDB;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class MockFlowStorageTest {
+
+  private static final UUID GROUP = UUID.randomUUID();
+
+  @TempDir
+  Path directory;
+
+  private RocksDbConfig config;
+  private OptimisticTransactionDB db;
+  private MockFlowStorage storage;
+
+  @BeforeEach
+  void open() {
+    RocksDbProperties properties = new RocksDbProperties();
+    properties.setPath(directory.toString());
+    properties.getTransaction().setMaxAttempts(100);
+    FamilyOptions prefixed = new FamilyOptions();
+    prefixed.setPrefixLength(Keys.UUID_LENGTH);
+    properties.getFamilies().put(StoreFamily.ROUTES.id(), prefixed);
+    properties.getFamilies().put(StoreFamily.GROUP_FLOWS.id(), prefixed);
+
+    config = new RocksDbConfig(properties);
+    db = config.rocksDB();
+    ColumnFamilies families = config.columnFamilies(db);
+    ValueCodec codec = new ValueCodec(new Jackson2ObjectMapperBuilder(), properties);
+    storage = new MockFlowStorage(db, families, codec,
+        new LegacyKeyspace(db, new ObjectMapper()),
+        new StoreTransactions(db, families, config.writeOptions(), properties),
+        new EntityCache<>("flows", 1 << 20, bytes -> codec.decode(bytes, MockFlow.class),
+            new SimpleMeterRegistry()));
+  }
+
+  @AfterEach
+  void close() {
+    config.close();
+  }
+
+  @Test
+  void saveMaintainsMembershipCounterAndRouteIndex() {
+    MockFlow flow = storage.save(apiFlow(GROUP, 1, "get", "/orders/:id"));
+    storage.save(flow);
+
+    assertThat(storage.countByGroupId(GROUP)).isEqualTo(1);
+    assertThat(storage.findByGroupId(GROUP)).extracting(MockFlow::getId)
+        .containsExactly(flow.getId());
+    assertThat(storage.findAllRoutes().get(GROUP)).singleElement()
+        .satisfies(route -> {
+          assertThat(route.getMethod()).isEqualTo("GET");
+          assertThat(route.getPath()).isEqualTo("/orders/:id");
+        });
+  }
+
+  @Test
+  void movingAFlowMovesItsCounterAndRoute() {
+    UUID other = UUID.randomUUID();
+    MockFlow flow = storage.save(apiFlow(GROUP, 1, "GET", "/orders"));
+
+    flow.setGroupId(other);
+    storage.save(flow);
+
+    assertThat(storage.countByGroupId(GROUP)).isZero();
+    assertThat(storage.countByGroupId(other)).isEqualTo(1);
+    assertThat(storage.findByGroupId(GROUP)).isEmpty();
+    assertThat(storage.findAllRoutes()).containsOnlyKeys(other);
+  }
+
+  @Test
+  void deleteRemovesTheFlowAndEveryIndex() {
+    MockFlow flow = apiFlow(GROUP, 1, "GET", "/orders");
+    flow.getFlowElements().add(element("KAFKA_TRIGGER", "broker", "localhost:9092", "topic", "t"));
+    storage.save(flow);
+    assertThat(storage.findByKafkaTrigger("localhost:9092", "t")).hasSize(1);
+
+    storage.delete(flow.getId());
+
+    assertThat(storage.findById(flow.getId())).isEmpty();
+    assertThat(storage.countByGroupId(GROUP)).isZero();
+    assertThat(storage.findByGroupId(GROUP)).isEmpty();
+    assertThat(storage.findAllRoutes()).isEmpty();
+    assertThat(storage.findByKafkaTrigger("localhost:9092", "t")).isEmpty();
+  }
+
+  @Test
+  void routeIndexOrderMatchesThePriorityOrder() {
+    UUID high = new UUID(0x8000000000000000L, 1);
+    UUID middle = new UUID(0x7fffffffffffffffL, 0);
+    UUID low = new UUID(1, 1);
+    List<MockFlow> flows = List.of(withId(apiFlow(GROUP, 3, "GET", "/a"), high),
+        withId(apiFlow(GROUP, null, "GET", "/b"), UUID.randomUUID()),
+        withId(apiFlow(GROUP, 3, "GET", "/c"), low),
+        withId(apiFlow(GROUP, -5, "GET", "/d"), UUID.randomUUID()),
+        withId(apiFlow(GROUP, 3, "GET", "/e"), middle));
+    flows.forEach(storage::save);
+
+    List<FlowMatchResult> stored = storage.findAllRoutes().get(GROUP);
+    List<FlowMatchResult> sorted = new ArrayList<>(stored);
+    sorted.sort(FlowMatchResult.PRIORITY_ORDER);
+
+    assertThat(stored).extracting(FlowMatchResult::getPath)
+        .containsExactly("/d", "/c", "/e", "/a", "/b");
+    assertThat(stored).isEqualTo(sorted);
+  }
+
+  @Test
+  void concurrentSavesKeepTheCounterExact() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<MockFlow>> saves = new ArrayList<>();
+      for (int i = 0; i < 64; i++) {
+        MockFlow flow = apiFlow(GROUP, i, "GET", "/orders/" + i);
+        saves.add(executor.submit(() -> storage.save(flow)));
+      }
+      for (Future<MockFlow> save : saves) {
+        save.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertThat(storage.countByGroupId(GROUP)).isEqualTo(64);
+    assertThat(storage.findByGroupId(GROUP)).hasSize(64);
+  }
+
+  @Test
+  void migratesLegacyFlowsAndDropsLegacyIndexes() throws Exception {
+    MockFlow legacy = withId(apiFlow(GROUP, 1, "GET", "/legacy"), UUID.randomUUID());
+    db.put(Keys.utf8("flow:" + legacy.getId()), new ObjectMapper().writeValueAsBytes(legacy));
+    db.put(Keys.utf8("match:" + GROUP + ":GET"), Keys.utf8("[]"));
+    db.put(Keys.utf8("route:" + GROUP + ":GET:"), Keys.utf8("[]"));
+
+    storage.migrateLegacyKeys();
+
+    assertThat(storage.findById(legacy.getId())).isPresent();
+    assertThat(storage.countByGroupId(GROUP)).isEqualTo(1);
+    assertThat(db.get(Keys.utf8("flow:" + legacy.getId()))).isNull();
+    assertThat(db.get(Keys.utf8("match:" + GROUP + ":GET"))).isNull();
+    assertThat(db.get(Keys.utf8("route:" + GROUP + ":GET:"))).isNull();
+  }
+
+  private static MockFlow apiFlow(UUID groupId, Integer priority, String method, String path) {
+    List<FlowElement> elements = new ArrayList<>();
+    elements.add(element("API_TRIGGER_REQUEST", "method", method, "path", path));
+    return MockFlow.builder()
+        .groupId(groupId)
+        .priority(priority)
+        .flowElements(elements)
+        .build();
+  }
+
+  private static MockFlow withId(MockFlow flow, UUID id) {
+    flow.setId(id);
+    return flow;
+  }
+
+  private static FlowElement element(String name, String firstName, String first,
+                                     String secondName, String second) {
+    return FlowElement.builder()
+        .name(name)
+        .orderNumber(1)
+        .attributes(List.of(new ElementAttribute(firstName, "STRING", first),
+            new ElementAttribute(secondName, "STRING", second)))
+        .build();
+  }
+
+}
@@ -0,0 +1,121 @@
+package jetmock.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import jetmock.config.RocksDbProperties;
+import jetmock.domain.ElementAttribute;
+import jetmock.domain.FlowElement;
+import jetmock.domain.FlowMatchResult;
+import jetmock.domain.MockFlow;
+import jetmock.domain.MockGroup;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class ValueCodecTest {
+
+  private final ValueCodec codec = codec("smile", true);
+
+  @Test
+  void flowsRoundTripThroughTheBinaryLayout() {
+    MockFlow flow = flow();
+
+    byte[] encoded = codec.encode(flow);
+
+    assertThat(encoded[0]).isEqualTo((byte) 0x10);
+    assertThat(codec.decode(encoded, MockFlow.class)).isEqualTo(flow);
+    assertThat(codec.decodeTree(encoded).get("name").asText()).isEqualTo("orders");
+  }
+
+  @Test
+  void routesRoundTripThroughTheBinaryLayout() {
+    FlowMatchResult match = FlowMatchResult.builder()
+        .id(UUID.randomUUID())
+        .version(3)
+        .priority(-2)
+        .method("POST")
+        .path("/orders/:id")
+        .expression("#trigger.body != null")
+        .build();
+
+    byte[] encoded = codec.encode(match);
+
+    assertThat(encoded[0]).isEqualTo((byte) 0x11);
+    assertThat(codec.decode(encoded, FlowMatchResult.class)).isEqualTo(match);
+  }
+
+  @Test
+  void writesTheConfiguredGenericFormat() {
+    MockGroup group = MockGroup.builder().id(UUID.randomUUID()).name("g").isActive(true).build();
+
+    assertThat(codec.encode(group)[0]).isEqualTo((byte) 0x01);
+    assertThat(codec("cbor", true).encode(group)[0]).isEqualTo((byte) 0x02);
+    assertThat(codec("json", true).encode(group)[0]).isEqualTo((byte) '{');
+  }
+
+  @Test
+  void readsEveryFormatWhateverTheConfiguredOne() throws Exception {
+    MockGroup group = MockGroup.builder().id(UUID.randomUUID()).name("g").isActive(true).build();
+    byte[] legacyJson = new ObjectMapper().writeValueAsBytes(group);
+
+    assertThat(codec.decode(codec("cbor", true).encode(group), MockGroup.class)).isEqualTo(group);
+    assertThat(codec.decode(legacyJson, MockGroup.class)).isEqualTo(group);
+    assertThat(codec.decode(codec("smile", false).encode(flow()), MockFlow.class))
+        .isEqualTo(flow());
+  }
+
+  @Test
+  void reportsWhetherAValueIsInTheCurrentFormat() throws Exception {
+    byte[] legacyJson = new ObjectMapper().writeValueAsBytes(Map.of("name", "g"));
+    byte[] smileFlow = codec("smile", false).encode(flow());
+
+    assertThat(codec.isCurrent(legacyJson, codec.type(MockGroup.class))).isFalse();
+    assertThat(codec.isCurrent(codec.encode(new MockGroup()), codec.type(MockGroup.class)))
+        .isTrue();
+    assertThat(codec.isCurrent(smileFlow, codec.type(MockFlow.class))).isFalse();
+    assertThat(codec.isCurrent(codec.encode(flow()), codec.type(MockFlow.class))).isTrue();
+  }
+
+  @Test
+  void parsesTheFormatIndependentlyOfTheDefaultLocale() {
+    Locale original = Locale.getDefault();
+    Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+    try {
+      assertThat(codec("SMILE", true).encode(new MockGroup())[0]).isEqualTo((byte) 0x01);
+    } finally {
+      Locale.setDefault(original);
+    }
+  }
+
+  private static ValueCodec codec(String format, boolean binaryEntities) {
+    RocksDbProperties properties = new RocksDbProperties();
+    properties.getCodec().setFormat(format);
+    properties.getCodec().setBinaryEntities(binaryEntities);
+    return new ValueCodec(new Jackson2ObjectMapperBuilder(), properties);
+  }
+
+  private static MockFlow flow() {
+    FlowElement response = FlowElement.builder()
+        .id(new UUID(1, 2))
+        .name("API_TRIGGER_RESPONSE")
+        .orderNumber(2)
+        .attributes(List.of(
+            new ElementAttribute("body", "STRING", "{\"id\":\"{{1.path.id}}\"}"),
+            new ElementAttribute("status", "NUMBER", 201),
+            new ElementAttribute("header", "JSON", Map.of("X-Trace", List.of("a", "b"))),
+            new ElementAttribute("latency", "NUMBER", null)))
+        .build();
+    return MockFlow.builder()
+        .id(new UUID(3, 4))
+        .name("orders")
+        .groupId(new UUID(5, 6))
+        .version(7)
+        .flowElements(List.of(response))
+        .build();
+  }
+
+}
@@ -0,0 +1,51 @@
+package jetmock.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+import jetmock.domain.GlobalVariable;
+import jetmock.domain.VariableScope;
+import org.junit.jupiter.api.Test;
+
+class VariableSnapshotTest {
+
+  private static final UUID GROUP = UUID.randomUUID();
+  private static final UUID FLOW = UUID.randomUUID();
+
+  private final VariableSnapshot snapshot = VariableSnapshot.EMPTY
+      .with(new GlobalVariable("Token", "global"))
+      .with(new GlobalVariable("token", "group", VariableScope.GROUP, GROUP))
+      .with(new GlobalVariable("TOKEN", "flow", VariableScope.FLOW, FLOW))
+      .with(new GlobalVariable("region", "eu"));
+
+  @Test
+  void resolvesFlowThenGroupThenGlobalIgnoringCase() {
+    assertThat(snapshot.resolve("token", GROUP, FLOW).getValue()).isEqualTo("flow");
+    assertThat(snapshot.resolve("Token", GROUP, UUID.randomUUID()).getValue()).isEqualTo("group");
+    assertThat(snapshot.resolve("TOKEN", null, null).getValue()).isEqualTo("global");
+    assertThat(snapshot.resolve("region", GROUP, FLOW).getValue()).isEqualTo("eu");
+    assertThat(snapshot.resolve("missing", GROUP, FLOW)).isNull();
+  }
+
+  @Test
+  void writesReplaceTheVariableOfTheSameNameWithoutChangingTheOriginal() {
+    VariableSnapshot updated = snapshot.with(new GlobalVariable("TOKEN", "rotated"));
+
+    assertThat(updated.resolve("token", null, null).getValue()).isEqualTo("rotated");
+    assertThat(snapshot.resolve("token", null, null).getValue()).isEqualTo("global");
+    assertThat(updated.global()).hasSize(2);
+  }
+
+  @Test
+  void withoutDropsOnlyTheVariablesOfTheGivenScope() {
+    VariableSnapshot withoutFlow = snapshot.without(VariableScope.FLOW, FLOW);
+    assertThat(withoutFlow.resolve("token", GROUP, FLOW).getValue()).isEqualTo("group");
+
+    VariableSnapshot withoutGroup = withoutFlow.without(VariableScope.GROUP, GROUP);
+    assertThat(withoutGroup.resolve("token", GROUP, FLOW).getValue()).isEqualTo("global");
+
+    assertThat(snapshot.without(VariableScope.GLOBAL, null)).isSameAs(snapshot);
+    assertThat(snapshot.without(VariableScope.GROUP, UUID.randomUUID())).isSameAs(snapshot);
+  }
+
+}